@@ -1,15 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,16 +29,32 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         HttpClient serverHttpClient, ServerTransportFactory transportFactory,
+                         RequestCoalescer requestCoalescer, ServerCallGuard serverCallGuard,
+                         ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                        .build(),
+                transportFactory,
+                requestCoalescer,
+                serverCallGuard,
+                responseCache,
+                serverUrl + API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, State state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, State state, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -37,15 +64,28 @@ public class BookingClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> bookItem(long userId, BookingInputDto bookingInputDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingInputDto bookingInputDto) {
         return post("", userId, bookingInputDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookingInputDto> bookingInputDtos) {
+        return post("/batch", userId, bookingInputDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, State state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookingsByOwner(long userId, State state, Integer from, Integer size,
+                                                     String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "size", size,
+                    "cursor", cursor
+            );
+            return get("/owner?state={state}&size={size}&cursor={cursor}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -54,8 +94,17 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public Mono<ResponseEntity<Object>> approveAll(Long userId, List<BookingApprovalDto> approvals) {
+        return patch("/batch", userId, approvals);
+    }
+
+    public void exportByOwner(Long userId, String format, HttpServletResponse response) throws IOException {
+        Map<String, Object> parameters = Map.of("format", format);
+        exchangeStream(HttpMethod.GET, "/owner/export?format={format}", userId, parameters, null, null, response);
+    }
 }
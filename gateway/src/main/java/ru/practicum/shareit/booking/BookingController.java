@@ -13,10 +13,18 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 import static ru.practicum.shareit.booking.State.getState;
 
@@ -31,39 +39,65 @@ public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody BookingInputDto bookingInputDto, @RequestHeader(USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody BookingInputDto bookingInputDto, @RequestHeader(USER_ID_HEADER) Long userId) {
         log.debug("Создание бронирования пользователем с id={}", userId);
         return bookingClient.bookItem(userId, bookingInputDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createAll(@RequestBody @NotEmpty @Size(max = 100)
+                                                  List<@NotNull @Valid BookingInputDto> bookingInputDtos,
+                                                  @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.debug("Создание {} бронирований пользователем с id={}", bookingInputDtos.size(), userId);
+        return bookingClient.bookItems(userId, bookingInputDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable(name = "bookingId") Long bookingId,
-                                          @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> approve(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable(name = "bookingId") Long bookingId,
+                                                @RequestParam Boolean approved) {
         log.debug("Обновление статуса бронирования пользователем с id={}, id бронирования={}, статус {}}", userId, bookingId, approved);
         return bookingClient.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> approveAll(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @RequestBody @NotEmpty @Size(max = 100)
+                                                   List<@NotNull @Valid BookingApprovalDto> approvals) {
+        log.debug("Обновление статусов {} бронирований пользователем с id={}", approvals.size(), userId);
+        return bookingClient.approveAll(userId, approvals);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long bookingId) {
         log.debug("Получение бронирования пользователем с id={}, id бронирования={}}", userId, bookingId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByUser(@RequestParam(defaultValue = "ALL") String state,
-                                            @RequestHeader(USER_ID_HEADER) Long userId,
-                                            @Min(0) @RequestParam(defaultValue = "0") Integer from,
-                                            @Min(1) @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getByUser(@RequestParam(defaultValue = "ALL") String state,
+                                                  @RequestHeader(USER_ID_HEADER) Long userId,
+                                                  @Min(0) @RequestParam(defaultValue = "0") Integer from,
+                                                  @Min(1) @RequestParam(defaultValue = "10") Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         log.debug("Получение списка бронирований пользователя с id={}", userId);
-        return bookingClient.getBookings(userId, getState(state), from, size);
+        return bookingClient.getBookings(userId, getState(state), from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getByOwner(@RequestParam(defaultValue = "ALL") String state,
-                                             @RequestHeader(USER_ID_HEADER) Long userId,
-                                             @Min(0) @RequestParam(defaultValue = "0") Integer from,
-                                             @Min(1) @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                   @RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @Min(0) @RequestParam(defaultValue = "0") Integer from,
+                                                   @Min(1) @RequestParam(defaultValue = "10") Integer size,
+                                                   @RequestParam(required = false) String cursor) {
         log.debug("Получение списка бронирований владельца вещей с id={}", userId);
-        return bookingClient.getBookingsByOwner(userId, getState(state), from, size);
+        return bookingClient.getBookingsByOwner(userId, getState(state), from, size, cursor);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader(USER_ID_HEADER) Long userId,
+                              @RequestParam(defaultValue = "ndjson") String format,
+                              HttpServletResponse response) throws IOException {
+        log.debug("Выгрузка бронирований владельца вещей с id={}, формат {}", userId, format);
+        bookingClient.exportByOwner(userId, format, response);
     }
 }
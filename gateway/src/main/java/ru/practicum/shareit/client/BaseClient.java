@@ -1,98 +1,222 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.WebUtils;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
 
-    public BaseClient(RestTemplate rest) {
+    protected final RestTemplate rest;
+    private final ServerTransport transport;
+    private final RequestCoalescer requestCoalescer;
+    private final ServerCallGuard serverCallGuard;
+    private final ResponseCache responseCache;
+    private final String baseUrl;
+    private final String group;
+
+    public BaseClient(RestTemplate rest, ServerTransportFactory transportFactory, RequestCoalescer requestCoalescer,
+                      ServerCallGuard serverCallGuard, ResponseCache responseCache, String baseUrl) {
         this.rest = rest;
+        this.transport = transportFactory.create(baseUrl, rest);
+        this.requestCoalescer = requestCoalescer;
+        this.serverCallGuard = serverCallGuard;
+        this.responseCache = responseCache;
+        this.baseUrl = baseUrl;
+        String basePath = StringUtils.trimLeadingCharacter(URI.create(baseUrl).getPath(), '/');
+        this.group = basePath.isEmpty() ? "default" : basePath;
+    }
+
+    protected String endpointGroup(String path) {
+        return group;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return requestCoalescer.coalesce(getClass().getSimpleName(), requestKey(path, userId, parameters),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    protected Mono<ResponseEntity<Object>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return cached(requestKey(path, userId, parameters), path, userId, parameters);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getSharedCached(String path, Long userId,
+                                                           @Nullable Map<String, Object> parameters) {
+        return cached(requestKey(path, null, parameters), path, userId, parameters);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    protected void exchangeStream(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters,
+                                  @Nullable MediaType contentType, @Nullable InputStream body,
+                                  HttpServletResponse response) throws IOException {
+        serverCallGuard.guardStream(endpointGroup(path), () -> {
+            try {
+                rest.execute(path, method, request -> {
+                    request.getHeaders().addAll(defaultHeaders(userId));
+                    request.getHeaders().setAccept(List.of(MediaType.ALL));
+                    if (contentType != null) {
+                        request.getHeaders().setContentType(contentType);
+                    } else {
+                        request.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+                    }
+                    if (body != null) {
+                        copyStream(body, request.getBody());
+                    }
+                }, shareitServerResponse -> {
+                    response.setStatus(shareitServerResponse.getRawStatusCode());
+                    if (shareitServerResponse.getHeaders().getContentType() != null) {
+                        response.setContentType(shareitServerResponse.getHeaders().getContentType().toString());
+                    }
+                    copyStream(shareitServerResponse.getBody(), response.getOutputStream());
+                    return null;
+                }, parameters != null ? parameters : Map.of());
+            } catch (HttpStatusCodeException e) {
+                response.setStatus(e.getRawStatusCode());
+                if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+                    response.setContentType(e.getResponseHeaders().getContentType().toString());
+                }
+                response.getOutputStream().write(e.getResponseBodyAsByteArray());
+            } finally {
+                if (method != HttpMethod.GET) {
+                    responseCache.markStale();
+                }
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }, response);
+    }
+
+    private static void copyStream(InputStream input, OutputStream output) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+            output.flush();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private Mono<ResponseEntity<Object>> cached(String key, String path, Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        String client = getClass().getSimpleName();
+        return responseCache.get(client, key, etag -> requestCoalescer.coalesce(client,
+                etag == null ? key : key + etag, () -> {
+                    HttpHeaders headers = defaultHeaders(userId);
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                    return exchange(HttpMethod.GET, path, headers, parameters, null);
+                }));
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response = exchange(method, path, defaultHeaders(userId), parameters, body);
+        return method == HttpMethod.GET ? response : response.doFinally(signal -> responseCache.markStale());
+    }
+
+    private Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                  @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return serverCallGuard.guard(endpointGroup(path), transport.exchange(method, path, headers,
+                        parameters != null ? parameters : Map.of(), requestBody(body)))
+                .map(BaseClient::prepareGatewayResponse);
+    }
+
+    private String requestKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder(baseUrl).append(path);
+        if (parameters != null) {
+            key.append(new TreeMap<>(parameters));
+        }
+        if (userId != null) {
+            key.append('#').append(userId);
+        }
+        return key.toString();
+    }
+
+    private static Object requestBody(@Nullable Object body) {
+        if (body == null || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return body;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
+        ContentCachingRequestWrapper cachingRequest = WebUtils.getNativeRequest(request, ContentCachingRequestWrapper.class);
+        if (cachingRequest == null || cachingRequest.getContentAsByteArray().length == 0) {
+            return body;
+        }
+        return cachingRequest.getContentAsByteArray();
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,12 +229,19 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        if (response.getStatusCode().isError()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .body(response.hasBody() ? response.getBody() : new byte[0]);
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
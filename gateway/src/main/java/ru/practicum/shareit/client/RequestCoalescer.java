@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlightRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ClientCounters> clientCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.requests.in.flight", inFlightRequests, Map::size)
+                .description("Количество выполняющихся запросов к серверу, к которым можно присоединиться")
+                .register(meterRegistry);
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(String client, String key,
+                                                 Supplier<Mono<ResponseEntity<Object>>> request) {
+        return Mono.defer(() -> {
+            AtomicBoolean leader = new AtomicBoolean();
+            Mono<ResponseEntity<Object>> shared = inFlightRequests.computeIfAbsent(key, k -> {
+                leader.set(true);
+                return share(k, request.get());
+            });
+            ClientCounters counters = clientCounters.computeIfAbsent(client,
+                    c -> new ClientCounters(meterRegistry, c));
+            (leader.get() ? counters.leading : counters.coalesced).increment();
+            return shared;
+        });
+    }
+
+    private Mono<ResponseEntity<Object>> share(String key, Mono<ResponseEntity<Object>> request) {
+        AtomicReference<Mono<ResponseEntity<Object>>> self = new AtomicReference<>();
+        Mono<ResponseEntity<Object>> shared = request
+                .doFinally(signal -> inFlightRequests.remove(key, self.get()))
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+
+    private static class ClientCounters {
+        private final Counter leading;
+        private final Counter coalesced;
+
+        ClientCounters(MeterRegistry meterRegistry, String client) {
+            leading = meterRegistry.counter("gateway.requests.leading", "client", client);
+            coalesced = meterRegistry.counter("gateway.requests.coalesced", "client", client);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+    private final AtomicLong writes = new AtomicLong();
+    private final boolean enabled;
+    private final long maxAgeNanos;
+    private final long staleNanos;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxAgeNanos = properties.getMaxAge().toNanos();
+        this.staleNanos = maxAgeNanos + properties.getStaleWhileRevalidate().toNanos();
+        this.meterRegistry = meterRegistry;
+        responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body.length)
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gatewayResponses");
+    }
+
+    public Mono<ResponseEntity<Object>> get(String client, String key,
+                                            Function<String, Mono<ResponseEntity<Object>>> request) {
+        if (!enabled) {
+            return request.apply(null);
+        }
+        return Mono.defer(() -> {
+            CachedResponse cached = responses.getIfPresent(key);
+            if (cached == null) {
+                count(client, "miss");
+                return fetch(client, key, null, request);
+            }
+            long age = System.nanoTime() - cached.validatedAt;
+            if (cached.generation == writes.get() && age <= staleNanos) {
+                if (age <= maxAgeNanos) {
+                    count(client, "hit");
+                } else {
+                    count(client, "stale");
+                    revalidateInBackground(client, key, cached, request);
+                }
+                return Mono.just(cached.toResponse());
+            }
+            return fetch(client, key, cached, request);
+        });
+    }
+
+    public void markStale() {
+        writes.incrementAndGet();
+    }
+
+    private void revalidateInBackground(String client, String key, CachedResponse cached,
+                                        Function<String, Mono<ResponseEntity<Object>>> request) {
+        if (!cached.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        fetch(client, key, cached, request)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> cached.revalidating.set(false))
+                .subscribe(response -> {
+                }, e -> log.warn("Не удалось обновить закэшированный ответ {}: {}", key, e.getMessage()));
+    }
+
+    private Mono<ResponseEntity<Object>> fetch(String client, String key, @Nullable CachedResponse cached,
+                                               Function<String, Mono<ResponseEntity<Object>>> request) {
+        long generation = writes.get();
+        return request.apply(cached == null ? null : cached.etag)
+                .map(response -> {
+                    if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        count(client, "not_modified");
+                        CachedResponse revalidated = cached.revalidated(generation);
+                        responses.asMap().replace(key, cached, revalidated);
+                        return revalidated.toResponse();
+                    }
+                    if (cached != null) {
+                        count(client, "modified");
+                    }
+                    store(key, response, generation);
+                    return response;
+                });
+    }
+
+    private void store(String key, ResponseEntity<Object> response, long generation) {
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode() != HttpStatus.OK || etag == null || !(response.getBody() instanceof byte[])) {
+            responses.invalidate(key);
+            return;
+        }
+        responses.put(key, new CachedResponse(etag, response.getHeaders(), (byte[]) response.getBody(),
+                System.nanoTime(), generation));
+    }
+
+    private void count(String client, String result) {
+        meterRegistry.counter("gateway.response.cache", "client", client, "result", result).increment();
+    }
+
+    private static class CachedResponse {
+        private final String etag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long validatedAt;
+        private final long generation;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+
+        CachedResponse(String etag, HttpHeaders headers, byte[] body, long validatedAt, long generation) {
+            this.etag = etag;
+            this.headers = headers;
+            this.body = body;
+            this.validatedAt = validatedAt;
+            this.generation = generation;
+        }
+
+        CachedResponse revalidated(long generation) {
+            return new CachedResponse(etag, headers, body, System.nanoTime(), generation);
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+    }
+}
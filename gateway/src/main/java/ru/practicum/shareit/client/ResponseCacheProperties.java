@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private DataSize maximumSize = DataSize.ofMegabytes(64);
+    private Duration maxAge = Duration.ofSeconds(1);
+    private Duration staleWhileRevalidate = Duration.ofSeconds(30);
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    public RestTemplateTransport(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> {
+            try {
+                return rest.exchange(path, method, new HttpEntity<>(body, headers), byte[].class, parameters);
+            } catch (HttpStatusCodeException e) {
+                return ResponseEntity.status(e.getRawStatusCode())
+                        .headers(e.getResponseHeaders())
+                        .body(e.getResponseBodyAsByteArray());
+            }
+        });
+    }
+}
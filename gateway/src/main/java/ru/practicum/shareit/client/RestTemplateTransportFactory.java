@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+@Component
+@Profile("!reactive")
+public class RestTemplateTransportFactory implements ServerTransportFactory {
+
+    @Override
+    public ServerTransport create(String baseUrl, RestTemplate rest) {
+        return new RestTemplateTransport(rest);
+    }
+}
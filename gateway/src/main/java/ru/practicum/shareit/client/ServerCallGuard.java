@@ -0,0 +1,80 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ServerCallGuard {
+
+    private static final byte[] UNAVAILABLE_BODY =
+            "{\"error\":\"Сервер временно недоступен, повторите запрос позже\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public Mono<ResponseEntity<byte[]>> guard(String group, Mono<ResponseEntity<byte[]>> call) {
+        return call
+                .flatMap(response -> response.getStatusCode().is5xxServerError()
+                        ? Mono.error(new ServerErrorResponse(response))
+                        : Mono.just(response))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(group)))
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(group)))
+                .onErrorResume(ServerErrorResponse.class, e -> Mono.just(e.response))
+                .onErrorResume(CallNotPermittedException.class, e -> Mono.just(unavailable(group, e)))
+                .onErrorResume(BulkheadFullException.class, e -> Mono.just(unavailable(group, e)));
+    }
+
+    public void guardStream(String group, StreamCall call, HttpServletResponse response) throws IOException {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(group);
+        if (!bulkhead.tryAcquirePermission()) {
+            log.warn("Запрос к серверу для группы {} отклонён: нет свободных мест", group);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(UNAVAILABLE_BODY);
+            return;
+        }
+        try {
+            call.run();
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private static ResponseEntity<byte[]> unavailable(String group, Exception e) {
+        log.warn("Запрос к серверу для группы {} отклонён: {}", group, e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(UNAVAILABLE_BODY);
+    }
+
+    public interface StreamCall {
+        void run() throws IOException;
+    }
+
+    private static class ServerErrorResponse extends RuntimeException {
+        private final ResponseEntity<byte[]> response;
+
+        ServerErrorResponse(ResponseEntity<byte[]> response) {
+            super("Сервер вернул " + response.getStatusCodeValue(), null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    private int maxConnections = 500;
+    private int maxConnectionsPerRoute = 500;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    private Duration poolAcquireTimeout = Duration.ofSeconds(5);
+    private Duration idleTimeout = Duration.ofSeconds(15);
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.web.client.RestTemplate;
+
+public interface ServerTransportFactory {
+
+    ServerTransport create(String baseUrl, RestTemplate rest);
+}
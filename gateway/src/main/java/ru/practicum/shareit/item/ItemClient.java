@@ -1,17 +1,31 @@
 package ru.practicum.shareit.item;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.StringJoiner;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,28 +33,64 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      HttpClient serverHttpClient, ServerTransportFactory transportFactory,
+                      RequestCoalescer requestCoalescer, ServerCallGuard serverCallGuard,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> {
+                            HttpComponentsClientHttpRequestFactory requestFactory =
+                                    new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+                            requestFactory.setBufferRequestBody(false);
+                            return requestFactory;
+                        })
+                        .build(),
+                transportFactory,
+                requestCoalescer,
+                serverCallGuard,
+                responseCache,
+                serverUrl + API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> create(InputItemDto itemDto, Long ownerId) {
+    @Override
+    protected String endpointGroup(String path) {
+        return path.startsWith("/search") ? "search" : super.endpointGroup(path);
+    }
+
+    public Mono<ResponseEntity<Object>> create(InputItemDto itemDto, Long ownerId) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> update(Long id, InputItemDto itemDto, Long ownerId) {
+    public void importItems(Long ownerId, InputStream body, HttpServletResponse response) throws IOException {
+        exchangeStream(HttpMethod.POST, "/bulk", ownerId, null, MediaType.APPLICATION_NDJSON, body, response);
+    }
+
+    public Mono<ResponseEntity<Object>> update(Long id, InputItemDto itemDto, Long ownerId) {
         return patch("/" + id, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getById(Long id, Long userId) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getById(Long id, Long userId) {
+        return getCached("/" + id, userId, null);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (from != null) {
+            parameters.put("from", from);
+            query.add("from={from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            query.add("to={to}");
+        }
+        return get("/" + id + "/availability" + query, userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long ownerId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(Long ownerId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,16 +98,16 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> findItem(Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> findItem(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getSharedCached("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> postComment(Long authorId, Long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(Long authorId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", authorId, commentDto);
     }
 }
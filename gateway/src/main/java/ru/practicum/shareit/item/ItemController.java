@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +15,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.ratelimit.RateLimited;
+import ru.practicum.shareit.ratelimit.RequestBudget;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -32,44 +41,62 @@ public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody InputItemDto itemDto, @RequestHeader(USER_ID_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody InputItemDto itemDto, @RequestHeader(USER_ID_HEADER) Long ownerId) {
         log.debug("Создание вещи, id владельца = {}", ownerId);
         return itemClient.create(itemDto, ownerId);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader(USER_ID_HEADER) Long ownerId, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.debug("Импорт вещей, id владельца = {}", ownerId);
+        itemClient.importItems(ownerId, request.getInputStream(), response);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@PathVariable Long id, @Valid @RequestBody InputItemDto itemDto,
-                                         @RequestHeader(USER_ID_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> update(@PathVariable Long id, @Valid @RequestBody InputItemDto itemDto,
+                                               @RequestHeader(USER_ID_HEADER) Long ownerId) {
         log.debug("Создание вещи c id={}, id владельца = {}", id, ownerId);
         return itemClient.update(id, itemDto, ownerId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getById(@PathVariable Long id, @RequestHeader(USER_ID_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long id, @RequestHeader(USER_ID_HEADER) Long userId) {
         log.debug("Получение вещи c id={} пользователем с id={}", id, userId);
         return itemClient.getById(id, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable Long id, @RequestHeader(USER_ID_HEADER) Long userId,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Получение свободных периодов вещи c id={} пользователем с id={}", id, userId);
+        return itemClient.getAvailability(id, userId, from, to);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader(USER_ID_HEADER) Long ownerId,
-                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                  @Min(0) @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsByOwner(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                        @Min(0) @RequestParam(defaultValue = "10") Integer size) {
         log.debug("Получение списка вещей владельца с id={}", ownerId);
         return itemClient.getItemsByOwner(ownerId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> findItem(@RequestParam(name = "text") String text,
-                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                           @Min(0) @RequestParam(defaultValue = "10") Integer size,
-                                           @RequestHeader(USER_ID_HEADER) Long userId) {
+    @RateLimited(RequestBudget.SEARCH)
+    public Mono<ResponseEntity<Object>> findItem(@RequestParam(name = "text") String text,
+                                                 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                 @Min(0) @RequestParam(defaultValue = "10") Integer size,
+                                                 @RequestHeader(USER_ID_HEADER) Long userId) {
         log.debug("Поиск вещей с запросом {}", text);
         return itemClient.findItem(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader(USER_ID_HEADER) Long authorId, @PathVariable Long itemId,
-                                              @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(@RequestHeader(USER_ID_HEADER) Long authorId, @PathVariable Long itemId,
+                                                    @Valid @RequestBody CommentDto commentDto) {
         log.debug("Публткация комментария пользователем с id={} к вещи с id={}", authorId, itemId);
         return itemClient.postComment(authorId, itemId, commentDto);
     }
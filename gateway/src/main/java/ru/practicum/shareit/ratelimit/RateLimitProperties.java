@@ -0,0 +1,47 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import java.time.Duration;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private long maximumKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    @Valid
+    private Budget read = new Budget(100, 50);
+    @Valid
+    private Budget write = new Budget(20, 10);
+    @Valid
+    private Budget search = new Budget(10, 5);
+
+    public Budget getBudget(RequestBudget budget) {
+        switch (budget) {
+            case WRITE:
+                return write;
+            case SEARCH:
+                return search;
+            default:
+                return read;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Budget {
+        @Positive
+        private int capacity;
+        @Positive
+        private double refillPerSecond;
+    }
+}
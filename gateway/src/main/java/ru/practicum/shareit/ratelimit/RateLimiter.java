@@ -0,0 +1,62 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Component
+public class RateLimiter {
+
+    private final Map<RequestBudget, Cache<String, AtomicLong>> buckets = new EnumMap<>(RequestBudget.class);
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        for (RequestBudget budget : RequestBudget.values()) {
+            Cache<String, AtomicLong> budgetBuckets = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaximumKeys())
+                    .expireAfterAccess(properties.getIdleTimeout())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, budgetBuckets, "rateLimit." + budget.name().toLowerCase());
+            buckets.put(budget, budgetBuckets);
+        }
+    }
+
+    public long tryAcquire(String key, RequestBudget budget) {
+        RateLimitProperties.Budget limits = properties.getBudget(budget);
+        long interval = (long) (1_000_000_000L / limits.getRefillPerSecond());
+        long tolerance = interval * (limits.getCapacity() - 1);
+        AtomicLong theoreticalArrival = buckets.get(budget).get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = theoreticalArrival.get();
+            long arrival = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long wait = arrival - now - tolerance;
+            if (wait > 0) {
+                meterRegistry.counter("gateway.rate.limit.rejected", "budget", budget.name()).increment();
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, arrival + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.ratelimit;
+
+public enum RequestBudget {
+
+    READ,
+    WRITE,
+    SEARCH
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -7,7 +8,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerCallGuard;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.request.dto.InputItemRequestDto;
 
 import java.util.Map;
@@ -18,32 +24,40 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             HttpClient serverHttpClient, ServerTransportFactory transportFactory,
+                             RequestCoalescer requestCoalescer, ServerCallGuard serverCallGuard,
+                             ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                        .build(),
+                transportFactory,
+                requestCoalescer,
+                serverCallGuard,
+                responseCache,
+                serverUrl + API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> createRequest(InputItemRequestDto inputItemRequestDto, Long requesterId) {
+    public Mono<ResponseEntity<Object>> createRequest(InputItemRequestDto inputItemRequestDto, Long requesterId) {
         return post("", requesterId, inputItemRequestDto);
     }
 
-    public ResponseEntity<Object> getRequestsByRequester(Long requesterId) {
+    public Mono<ResponseEntity<Object>> getRequestsByRequester(Long requesterId) {
         return get("", requesterId);
     }
 
-    public ResponseEntity<Object>  getRequestById(Long requesterId, Long requestId) {
+    public Mono<ResponseEntity<Object>>  getRequestById(Long requesterId, Long requestId) {
         return get("/" + requestId, requesterId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long requesterId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(Long requesterId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", requesterId, parameters);
+        return getCached("/all?from={from}&size={size}", requesterId, parameters);
     }
 }
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+import ru.practicum.shareit.GatewayApp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GatewayLoadBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int SERVER_DELAY_MS = Integer.getInteger("benchmark.serverDelayMs", 100);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static final AtomicInteger serverCalls = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        LoopResources serverLoops = LoopResources.create("benchmark-server");
+        DisposableServer server = HttpServer.create()
+                .runOn(serverLoops)
+                .port(0)
+                .route(routes -> routes.get("/users/{id}", (request, response) -> {
+                    serverCalls.incrementAndGet();
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.just("{\"id\":" + request.param("id") + ",\"name\":\"user\",\"email\":\"user@mail.ru\"}")
+                                    .delayElement(Duration.ofMillis(SERVER_DELAY_MS))
+                                    .doFinally(signal -> inFlight.decrementAndGet()));
+                }))
+                .bindNow();
+        try {
+            for (String profile : args.length > 0 ? args : new String[]{"default", "reactive"}) {
+                run(profile, server.port());
+            }
+        } finally {
+            server.disposeNow();
+            serverLoops.dispose();
+        }
+    }
+
+    private static void run(String profile, int serverPort) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GatewayApp.class)
+                .profiles(profile)
+                .run("--server.port=0",
+                        "--shareit-server.url=http://localhost:" + serverPort,
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO",
+                        "--shareit-gateway.rate-limit.enabled=false",
+                        "--resilience4j.bulkhead.instances.users.max-concurrent-calls=" + CONCURRENCY);
+        try {
+            int gatewayPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newFixedThreadPool(4))
+                    .build();
+            load(httpClient, gatewayPort, CONCURRENCY);
+            maxInFlight.set(0);
+            serverCalls.set(0);
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long started = System.nanoTime();
+            List<Long> latencies = load(httpClient, gatewayPort, REQUESTS);
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            Collections.sort(latencies);
+            Runtime runtime = Runtime.getRuntime();
+            System.out.printf("%s: запросов %d, параллельно %d, время %d мс, p50 %d мс, p99 %d мс, "
+                            + "запросов к серверу %d, максимум одновременных запросов к серверу %d, пик потоков %d, "
+                            + "heap %d МБ из %d МБ, ошибок %d%n",
+                    profile, REQUESTS, CONCURRENCY, elapsedMs, percentile(latencies, 0.5),
+                    percentile(latencies, 0.99), serverCalls.get(), maxInFlight.get(), threads.getPeakThreadCount(),
+                    (runtime.totalMemory() - runtime.freeMemory()) / 1024 / 1024, runtime.maxMemory() / 1024 / 1024,
+                    REQUESTS - latencies.size());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static List<Long> load(HttpClient httpClient, int gatewayPort, int requests) throws Exception {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<?>> responses = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + gatewayPort + "/users/" + i % 100))
+                    .timeout(Duration.ofSeconds(60))
+                    .build();
+            long started = System.nanoTime();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        if (e == null && response.statusCode() == 200) {
+                            latencies.add((System.nanoTime() - started) / 1_000_000);
+                        }
+                        permits.release();
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).exceptionally(e -> null).join();
+        return new ArrayList<>(latencies);
+    }
+
+    private static long percentile(List<Long> sortedLatencies, double percentile) {
+        if (sortedLatencies.isEmpty()) {
+            return 0;
+        }
+        return sortedLatencies.get((int) Math.ceil(percentile * sortedLatencies.size()) - 1);
+    }
+}
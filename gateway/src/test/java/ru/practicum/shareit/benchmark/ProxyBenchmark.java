@@ -0,0 +1,169 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ResponseCacheProperties;
+import ru.practicum.shareit.client.RestTemplateTransportFactory;
+import ru.practicum.shareit.client.ServerCallGuard;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBenchmark {
+
+    @Param({"1", "100"})
+    private int bookingsCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+    private final ByteArrayHttpMessageConverter byteArrayConverter = new ByteArrayHttpMessageConverter();
+    private RestTemplate rest;
+    private BenchmarkClient client;
+    private BookingInputDto bookingInputDto;
+    private byte[] bookingInputBytes;
+
+    @Setup
+    @SneakyThrows
+    public void setUp() {
+        StringJoiner bookings = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= bookingsCount; i++) {
+            bookings.add("{\"id\":" + i + ",\"item\":{\"id\":" + i + ",\"name\":\"item" + i + "\"},"
+                    + "\"booker\":{\"id\":" + (i + bookingsCount) + "},\"start\":\"2030-01-01T10:00:00\","
+                    + "\"end\":\"2030-01-02T10:00:00\",\"status\":\"APPROVED\"}");
+        }
+        byte[] responseBody = bookings.toString().getBytes(StandardCharsets.UTF_8);
+        rest = new RestTemplate((uri, method) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(responseBody, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(responseBody.length);
+            request.setResponse(response);
+            return request;
+        });
+        rest.setMessageConverters(List.of(byteArrayConverter, jsonConverter));
+        client = new BenchmarkClient(rest);
+        bookingInputDto = new BookingInputDto(null, 1L, LocalDateTime.of(2030, 1, 1, 10, 0),
+                LocalDateTime.of(2030, 1, 2, 10, 0));
+        bookingInputBytes = objectMapper.writeValueAsBytes(bookingInputDto);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public ResponseEntity<Object> proxyResponseWithJacksonRoundTrip() {
+        ResponseEntity<Object> response = rest.exchange("http://localhost/bookings", HttpMethod.GET,
+                new HttpEntity<>(jsonHeaders()), Object.class);
+        jsonConverter.write(response.getBody(), MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+        return response;
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public ResponseEntity<Object> proxyResponsePassThrough() {
+        ResponseEntity<Object> response = client.get();
+        byteArrayConverter.write((byte[]) response.getBody(), MediaType.APPLICATION_JSON, new DiscardingOutputMessage());
+        return response;
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] forwardRequestWithJacksonRoundTrip() {
+        BookingInputDto body = objectMapper.readValue(bookingInputBytes, BookingInputDto.class);
+        return rest.exchange("http://localhost/bookings", HttpMethod.POST,
+                new HttpEntity<>(body, jsonHeaders()), byte[].class).getBody();
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] forwardRequestPassThrough() {
+        objectMapper.readValue(bookingInputBytes, BookingInputDto.class);
+        return rest.exchange("http://localhost/bookings", HttpMethod.POST,
+                new HttpEntity<>(bookingInputBytes, jsonHeaders()), byte[].class).getBody();
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ProxyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    private static class DiscardingOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static class BenchmarkClient extends BaseClient {
+
+        BenchmarkClient(RestTemplate rest) {
+            super(rest, new RestTemplateTransportFactory(), new RequestCoalescer(new SimpleMeterRegistry()),
+                    new ServerCallGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults()),
+                    new ResponseCache(new ResponseCacheProperties(), new SimpleMeterRegistry()), "http://localhost");
+        }
+
+        ResponseEntity<Object> get() {
+            return get("http://localhost/bookings").block();
+        }
+    }
+}
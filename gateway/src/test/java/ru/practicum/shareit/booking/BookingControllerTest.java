@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+class BookingControllerTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private BookingClient bookingClient;
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    @SneakyThrows
+    @Test
+    void shouldRejectNullApproval() {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingClient, never()).approveAll(anyLong(), anyList());
+    }
+
+    @SneakyThrows
+    @Test
+    void shouldRejectApprovalWithoutStatus() {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\": 1}]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingClient, never()).approveAll(anyLong(), any());
+    }
+
+    @SneakyThrows
+    @Test
+    void shouldRejectNullBookingInBatch() {
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest());
+        verify(bookingClient, never()).bookItems(anyLong(), anyList());
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BaseClientTest {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ServerTransport transport = (method, path, headers, parameters, body) -> Mono.fromSupplier(() -> {
+            requests.add(method + " " + headers.getFirst("X-Sharer-User-Id"));
+            return ResponseEntity.ok()
+                    .eTag("\"v1\"")
+                    .body("[]".getBytes(StandardCharsets.UTF_8));
+        });
+        client = new BaseClient(new RestTemplate(), (baseUrl, rest) -> transport, new RequestCoalescer(meterRegistry),
+                new ServerCallGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults()),
+                new ResponseCache(new ResponseCacheProperties(), meterRegistry), "http://server/items");
+    }
+
+    @Test
+    void shouldCacheResponsesPerUser() {
+        client.getCached("/1", 1L, null).block();
+        client.getCached("/1", 2L, null).block();
+        client.getCached("/1", 1L, null).block();
+        client.getCached("/1", 2L, null).block();
+        assertEquals(List.of("GET 1", "GET 2"), requests);
+    }
+
+    @Test
+    void shouldShareCachedResponseBetweenUsers() {
+        client.getSharedCached("/search", 1L, Map.of("text", "дрель")).block();
+        client.getSharedCached("/search", 2L, Map.of("text", "дрель")).block();
+        client.getSharedCached("/search", 2L, Map.of("text", "пила")).block();
+        assertEquals(List.of("GET 1", "GET 2"), requests);
+    }
+
+    @Test
+    void shouldRevalidateCachedResponseAfterWrite() {
+        client.getCached("/1", 1L, null).block();
+        client.patch("/1", 1L, Map.of("name", "дрель")).block();
+        client.getCached("/1", 1L, null).block();
+        assertEquals(List.of("GET 1", "PATCH 1", "GET 1"), requests);
+    }
+}
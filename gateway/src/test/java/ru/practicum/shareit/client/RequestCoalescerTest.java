@@ -0,0 +1,97 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestCoalescerTest {
+
+    private static final String CLIENT = "ItemClient";
+
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void shouldSubscribeOnceForConcurrentIdenticalRequests() {
+        Sinks.One<ResponseEntity<Object>> server = Sinks.one();
+        List<Mono<ResponseEntity<Object>>> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            requests.add(requestCoalescer.coalesce(CLIENT, "/items/1#1", () -> upstream(server.asMono())));
+        }
+        List<ResponseEntity<Object>> responses = new ArrayList<>();
+        requests.forEach(request -> request.subscribe(responses::add));
+        assertEquals(1, inFlight());
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        server.tryEmitValue(response);
+        assertEquals(1, subscriptions.get());
+        assertEquals(3, responses.size());
+        responses.forEach(r -> assertSame(response, r));
+        assertEquals(1, counter("gateway.requests.leading"));
+        assertEquals(2, counter("gateway.requests.coalesced"));
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void shouldNotMergeRequestsWithDifferentKeys() {
+        Sinks.One<ResponseEntity<Object>> server = Sinks.one();
+        requestCoalescer.coalesce(CLIENT, "/items/1#1", () -> upstream(server.asMono())).subscribe();
+        requestCoalescer.coalesce(CLIENT, "/items/1#2", () -> upstream(server.asMono())).subscribe();
+        assertEquals(2, subscriptions.get());
+        assertEquals(2, inFlight());
+        assertEquals(2, counter("gateway.requests.leading"));
+        assertEquals(0, counter("gateway.requests.coalesced"));
+    }
+
+    @Test
+    void shouldRetryAfterFailedRequest() {
+        Mono<ResponseEntity<Object>> failed = requestCoalescer.coalesce(CLIENT, "/items/1#1",
+                () -> upstream(Mono.error(new IllegalStateException("connection reset"))));
+        assertThrows(IllegalStateException.class, failed::block);
+        assertEquals(0, inFlight());
+        ResponseEntity<Object> response = requestCoalescer.coalesce(CLIENT, "/items/1#1",
+                () -> upstream(Mono.just(ResponseEntity.ok("item")))).block();
+        assertEquals("item", response.getBody());
+        assertEquals(2, subscriptions.get());
+        assertEquals(2, counter("gateway.requests.leading"));
+    }
+
+    @Test
+    void shouldStartNewRequestAfterPreviousCompleted() {
+        requestCoalescer.coalesce(CLIENT, "/items/1#1", () -> upstream(Mono.just(ResponseEntity.ok("first")))).block();
+        ResponseEntity<Object> response = requestCoalescer.coalesce(CLIENT, "/items/1#1",
+                () -> upstream(Mono.just(ResponseEntity.ok("second")))).block();
+        assertEquals("second", response.getBody());
+        assertEquals(2, subscriptions.get());
+    }
+
+    private Mono<ResponseEntity<Object>> upstream(Mono<ResponseEntity<Object>> response) {
+        return response.doOnSubscribe(subscription -> subscriptions.incrementAndGet());
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("gateway.requests.in.flight").gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name, "client", CLIENT).count();
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    private static final String CLIENT = "ItemClient";
+    private static final String KEY = "http://server/items/1#1";
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private MeterRegistry meterRegistry;
+    private ResponseCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ResponseCacheProperties();
+        properties.setMaxAge(Duration.ofMinutes(1));
+        properties.setStaleWhileRevalidate(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldServeFreshResponseFromCache() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        ResponseEntity<Object> response = responseCache.get(CLIENT, KEY, server("\"v2\"", "second")).block();
+        assertBody("first", response);
+        assertEquals(List.of("none"), requests);
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    void shouldNotShareEntriesBetweenKeys() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        ResponseEntity<Object> response = responseCache.get(CLIENT, "http://server/items/1#2",
+                server("\"v1\"", "second")).block();
+        assertBody("second", response);
+        assertEquals(2, count("miss"));
+    }
+
+    @Test
+    void shouldNotCacheResponseWithoutEtag() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server(null, "first")).block();
+        responseCache.get(CLIENT, KEY, server(null, "second")).block();
+        assertEquals(2, count("miss"));
+    }
+
+    @Test
+    void shouldServeStaleResponseAndRevalidateInBackground() throws InterruptedException {
+        properties.setMaxAge(Duration.ZERO);
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        CountDownLatch revalidated = new CountDownLatch(1);
+        ResponseEntity<Object> response = responseCache.get(CLIENT, KEY, etag -> server("\"v2\"", "second")
+                .apply(etag)
+                .doOnSuccess(r -> revalidated.countDown())).block();
+        assertBody("first", response);
+        assertEquals(1, count("stale"));
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("none", "\"v1\""), requests);
+    }
+
+    @Test
+    void shouldRevalidateAfterWrite() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        responseCache.markStale();
+        ResponseEntity<Object> response = responseCache.get(CLIENT, KEY, server("\"v2\"", "second")).block();
+        assertBody("second", response);
+        assertEquals(List.of("none", "\"v1\""), requests);
+        assertEquals(1, count("modified"));
+    }
+
+    @Test
+    void shouldKeepCachedBodyWhenNotModified() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        responseCache.markStale();
+        ResponseEntity<Object> revalidated = responseCache.get(CLIENT, KEY, notModified()).block();
+        ResponseEntity<Object> cached = responseCache.get(CLIENT, KEY, server("\"v2\"", "second")).block();
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("\"v1\"", revalidated.getHeaders().getETag());
+        assertBody("first", revalidated);
+        assertBody("first", cached);
+        assertEquals(1, count("not_modified"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    void shouldBypassCacheWhenDisabled() {
+        properties.setEnabled(false);
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry);
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "first")).block();
+        responseCache.get(CLIENT, KEY, server("\"v1\"", "second")).block();
+        assertEquals(List.of("none", "none"), requests);
+    }
+
+    private Function<String, Mono<ResponseEntity<Object>>> server(String etag, String body) {
+        return ifNoneMatch -> Mono.fromSupplier(() -> {
+            requests.add(ifNoneMatch == null ? "none" : ifNoneMatch);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (etag != null) {
+                response.eTag(etag);
+            }
+            return response.body(body.getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private Function<String, Mono<ResponseEntity<Object>>> notModified() {
+        return ifNoneMatch -> Mono.fromSupplier(() -> {
+            requests.add(ifNoneMatch);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        });
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("gateway.response.cache", "client", CLIENT, "result", result).count();
+    }
+
+    private static void assertBody(String expected, ResponseEntity<Object> response) {
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+}
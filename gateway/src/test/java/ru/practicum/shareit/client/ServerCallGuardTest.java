@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ServerCallGuardTest {
+
+    private static final String GROUP = "items";
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+    private BulkheadRegistry bulkheadRegistry;
+    private ServerCallGuard serverCallGuard;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .build());
+        bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        serverCallGuard = new ServerCallGuard(circuitBreakerRegistry, bulkheadRegistry);
+    }
+
+    @Test
+    void shouldPassServerErrorThroughAndCountItAsFailure() {
+        ResponseEntity<byte[]> serverError = ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\":\"boom\"}".getBytes(StandardCharsets.UTF_8));
+        assertSame(serverError, serverCallGuard.guard(GROUP, Mono.just(serverError)).block());
+        assertEquals(1, circuitBreaker().getMetrics().getNumberOfFailedCalls());
+        ResponseEntity<byte[]> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        assertSame(notFound, serverCallGuard.guard(GROUP, Mono.just(notFound)).block());
+        assertEquals(1, circuitBreaker().getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void shouldAnswerUnavailableWhenBreakerIsOpen() {
+        ResponseEntity<byte[]> serverError = ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        serverCallGuard.guard(GROUP, Mono.just(serverError)).block();
+        serverCallGuard.guard(GROUP, Mono.just(serverError)).block();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker().getState());
+        AtomicInteger calls = new AtomicInteger();
+        ResponseEntity<byte[]> response = serverCallGuard.guard(GROUP, Mono.fromSupplier(() -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(new byte[0]);
+        })).block();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void shouldAnswerUnavailableWhenBulkheadIsFull() {
+        Sinks.One<ResponseEntity<byte[]>> server = Sinks.one();
+        serverCallGuard.guard(GROUP, server.asMono()).subscribe();
+        ResponseEntity<byte[]> response = serverCallGuard.guard(GROUP, Mono.just(ResponseEntity.ok(new byte[0])))
+                .block();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        server.tryEmitValue(ResponseEntity.ok(new byte[0]));
+        assertEquals(1, bulkheadRegistry.bulkhead(GROUP).getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReleaseStreamPermitAfterCall() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        serverCallGuard.guardStream(GROUP, () -> response.setStatus(HttpStatus.OK.value()), response);
+        assertThrows(IOException.class, () -> serverCallGuard.guardStream(GROUP, () -> {
+            throw new IOException("connection reset");
+        }, response));
+        assertEquals(1, bulkheadRegistry.bulkhead(GROUP).getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAnswerUnavailableWhenStreamBulkheadIsFull() {
+        bulkheadRegistry.bulkhead(GROUP).acquirePermission();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicInteger calls = new AtomicInteger();
+        serverCallGuard.guardStream(GROUP, calls::incrementAndGet, response);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals(0, calls.get());
+    }
+
+    private CircuitBreaker circuitBreaker() {
+        return circuitBreakerRegistry.circuitBreaker(GROUP);
+    }
+}
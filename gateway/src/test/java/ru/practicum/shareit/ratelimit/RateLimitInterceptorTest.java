@@ -0,0 +1,105 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitInterceptorTest {
+
+    private RateLimiter rateLimiter;
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = mock(RateLimiter.class);
+        interceptor = new RateLimitInterceptor(rateLimiter);
+        request = new MockHttpServletRequest("GET", "/items/1");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeyByUserHeader() {
+        request.addHeader("X-Sharer-User-Id", "7");
+        assertTrue(interceptor.preHandle(request, response, handler("read")));
+        verify(rateLimiter).tryAcquire("user:7", RequestBudget.READ);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldKeyByRemoteAddressWithoutUserHeader() {
+        assertTrue(interceptor.preHandle(request, response, handler("read")));
+        verify(rateLimiter).tryAcquire("ip:10.0.0.1", RequestBudget.READ);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldChooseBudgetByAnnotationOrMethod() {
+        interceptor.preHandle(request, response, handler("search"));
+        verify(rateLimiter).tryAcquire("ip:10.0.0.1", RequestBudget.SEARCH);
+        request.setMethod("PATCH");
+        interceptor.preHandle(request, response, handler("read"));
+        verify(rateLimiter).tryAcquire("ip:10.0.0.1", RequestBudget.WRITE);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectWithRetryAfterRoundedUpToSeconds() {
+        when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertFalse(interceptor.preHandle(request, response, handler("read")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAskToRetryAfterAtLeastOneSecond() {
+        when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(1L);
+        assertFalse(interceptor.preHandle(request, response, handler("read")));
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotChargeAsyncDispatch() {
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(interceptor.preHandle(request, response, handler("read")));
+        verify(rateLimiter, never()).tryAcquire(anyString(), any());
+    }
+
+    @SneakyThrows
+    private static HandlerMethod handler(String method) {
+        return new HandlerMethod(new Handlers(), Handlers.class.getMethod(method));
+    }
+
+    static class Handlers {
+
+        public void read() {
+        }
+
+        @RateLimited(RequestBudget.SEARCH)
+        public void search() {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+    private MeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Budget(3, 10));
+        properties.setWrite(new RateLimitProperties.Budget(1, 10));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(properties, meterRegistry, now::get);
+    }
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+        }
+        assertEquals(INTERVAL, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+        assertEquals(1, meterRegistry.counter("gateway.rate.limit.rejected", "budget", "READ").count());
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("user:1", RequestBudget.READ);
+        }
+        now.addAndGet(INTERVAL / 2);
+        assertEquals(INTERVAL / 2, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+        now.addAndGet(INTERVAL / 2);
+        assertEquals(0, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+        assertEquals(INTERVAL, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+    }
+
+    @Test
+    void shouldNotAccumulateMoreThanCapacityWhileIdle() {
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+        }
+        assertEquals(INTERVAL, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerKeyAndBudget() {
+        assertEquals(0, rateLimiter.tryAcquire("user:1", RequestBudget.WRITE));
+        assertEquals(INTERVAL, rateLimiter.tryAcquire("user:1", RequestBudget.WRITE));
+        assertEquals(0, rateLimiter.tryAcquire("user:2", RequestBudget.WRITE));
+        assertEquals(0, rateLimiter.tryAcquire("ip:127.0.0.1", RequestBudget.WRITE));
+        assertEquals(0, rateLimiter.tryAcquire("user:1", RequestBudget.READ));
+    }
+
+    @Test
+    void shouldRejectNonPositiveRefillRateAtStartup() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(PropertiesConfig.class)
+                .withPropertyValues("shareit-gateway.rate-limit.search.refill-per-second=0")
+                .run(context -> assertThat(context).hasFailed());
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(PropertiesConfig.class)
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @EnableConfigurationProperties(RateLimitProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,11 +11,22 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.booking.service.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -22,37 +34,79 @@ import java.util.Collection;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
     private final String userIdHeader = "X-Sharer-User-Id";
+    private final String nextCursorHeader = "X-Next-Cursor";
 
     @PostMapping
     public BookingDto create(@RequestBody BookingInputDto bookingInputDto, @RequestHeader(userIdHeader) Long userId) {
         return bookingService.create(userId, bookingInputDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingDto> createAll(@RequestBody List<BookingInputDto> bookingInputDtos,
+                                      @RequestHeader(userIdHeader) Long userId) {
+        return bookingService.createAll(userId, bookingInputDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@RequestHeader(userIdHeader) Long userId, @PathVariable(name = "bookingId") Long bookingId,
                               @RequestParam Boolean approved) {
         return bookingService.approve(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingApprovalResult> approveAll(@RequestHeader(userIdHeader) Long userId,
+                                                  @RequestBody List<BookingApprovalDto> approvals) {
+        return bookingService.approveAll(userId, approvals);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader(userIdHeader) Long userId, @PathVariable Long bookingId) {
         return bookingService.getById(userId, bookingId);
     }
 
     @GetMapping
-    public Collection<BookingDto> getByUser(@RequestParam(defaultValue = "ALL") String state,
-                                            @RequestHeader(userIdHeader) Long userId,
-                                            @RequestParam(defaultValue = "0") Integer from,
-                                            @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getByUser(state, userId, from, size);
+    public ResponseEntity<Collection<BookingDto>> getByUser(@RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestHeader(userIdHeader) Long userId,
+                                                            @RequestParam(defaultValue = "0") Integer from,
+                                                            @RequestParam(defaultValue = "10") Integer size,
+                                                            @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getByUser(state, userId, from, size, cursor), size);
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDto> getByOwner(@RequestParam(defaultValue = "ALL") String state,
-                                             @RequestHeader(userIdHeader) Long userId,
-                                             @RequestParam(defaultValue = "0") Integer from,
-                                             @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getByOwner(state, userId, from, size);
+    public ResponseEntity<Collection<BookingDto>> getByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestHeader(userIdHeader) Long userId,
+                                                             @RequestParam(defaultValue = "0") Integer from,
+                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                             @RequestParam(required = false) String cursor) {
+        return withNextCursor(bookingService.getByOwner(state, userId, from, size, cursor), size);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader(userIdHeader) Long userId,
+                                                               @RequestParam(defaultValue = "ndjson") String format,
+                                                               HttpServletRequest request,
+                                                               HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = bookingExporter.exportByOwner(userId, exportFormat);
+        AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(request, response);
+        asyncWebRequest.setTimeout(bookingExporter.getTimeout().toMillis());
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .body(body);
+    }
+
+    private ResponseEntity<Collection<BookingDto>> withNextCursor(Collection<BookingDto> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingDto last = bookings.stream()
+                    .reduce((first, second) -> second)
+                    .get();
+            response.header(nextCursorHeader, new BookingCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(bookings);
     }
 }
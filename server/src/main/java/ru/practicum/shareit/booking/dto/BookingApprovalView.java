@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingApprovalView {
+
+    Long getId();
+
+    Long getItemId();
+
+    Status getStatus();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -16,9 +14,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class BookingDto {
     private Long id;
-    private Item item;
-    private User booker;
+    private BookingItemDto item;
+    private BookerDto booker;
     private LocalDateTime start;
     private LocalDateTime end;
     private Status status;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                      Long itemId, String itemName, Long bookerId) {
+        this(id, new BookingItemDto(itemId, itemName), new BookerDto(bookerId), start, end, status);
+    }
 }
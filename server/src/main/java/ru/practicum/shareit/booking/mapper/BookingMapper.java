@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 
 @Component
@@ -22,8 +25,13 @@ public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
         return BookingDto.builder()
                 .id(booking.getId())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(BookingItemDto.builder()
+                        .id(booking.getItem().getId())
+                        .name(booking.getItem().getName())
+                        .build())
+                .booker(BookerDto.builder()
+                        .id(booking.getBooker().getId())
+                        .build())
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .status(booking.getStatus())
@@ -50,4 +58,14 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingShortDto toBookingShortDto(BookingShortView bookingShortView) {
+        return BookingShortDto.builder()
+                .id(bookingShortView.getId())
+                .itemId(bookingShortView.getItemId())
+                .bookerId(bookingShortView.getBookerId())
+                .start(bookingShortView.getStart())
+                .end(bookingShortView.getEnd())
+                .build();
+    }
+
 }
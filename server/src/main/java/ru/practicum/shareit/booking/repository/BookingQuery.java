@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingQuery {
+
+    private BookingRole role;
+    private Long userId;
+    private State state;
+    private LocalDateTime now;
+    private BookingCursor cursor;
+    private int from;
+    private int size;
+}
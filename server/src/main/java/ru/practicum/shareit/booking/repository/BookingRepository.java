@@ -1,48 +1,90 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBooker(User user, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStartBeforeAndEndAfter(User user, LocalDateTime start, LocalDateTime end, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStartAfter(User user, LocalDateTime localDateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerAndEndBefore(User user, LocalDateTime localDateTime, Pageable pageable);
-
-    List<Booking> findAllByBookerAndStatus(User user, Status status, Pageable pageable);
-
-    List<Booking> findAllByItemOwner(User owner, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndStartBeforeAndEndAfter(User owner, LocalDateTime start, LocalDateTime end, Pageable pageable);
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
-    List<Booking> findAllByItemOwnerAndStartAfter(User owner, LocalDateTime localDateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndEndBefore(User owner, LocalDateTime localDateTime, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerAndStatus(User owner, Status status, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(Long userId, Long itemId, Status status, LocalDateTime end);
-
-    Booking findFirstByItemAndStatusEqualsAndStartLessThan(Item item, Status status, LocalDateTime end, Sort sort);
-
-    Booking findFirstByItemAndStatusEqualsAndStartAfter(Item item, Status status, LocalDateTime end, Sort sort);
-
-    Booking findFirstByItemIdAndStatusEqualsAndStartLessThan(Long id, Status status, LocalDateTime end, Sort sort);
-
-    Booking findFirstByItemIdAndStatusEqualsAndStartAfter(Long id, Status status, LocalDateTime end, Sort sort);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = :userId AND b.item.id = :itemId AND b.status = :status AND b.end < :end")
+    List<Booking> findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(@Param("userId") Long userId,
+                                                                          @Param("itemId") Long itemId,
+                                                                          @Param("status") Status status,
+                                                                          @Param("end") LocalDateTime end);
+
+    @Query(value = "SELECT id, itemId, bookerId, start, \"end\" FROM (" +
+            "SELECT b.id AS id, b.item_id AS itemId, b.booker_id AS bookerId, " +
+            "b.start_booking AS start, b.end_booking AS \"end\", " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_booking DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_booking < :now) AS last_bookings " +
+            "WHERE rn = 1 " +
+            "UNION ALL " +
+            "SELECT id, itemId, bookerId, start, \"end\" FROM (" +
+            "SELECT b.id AS id, b.item_id AS itemId, b.booker_id AS bookerId, " +
+            "b.start_booking AS start, b.end_booking AS \"end\", " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_booking ASC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_booking > :now) AS next_bookings " +
+            "WHERE rn = 1",
+            nativeQuery = true)
+    List<BookingShortView> findLastAndNextApprovedByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                                            @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT b.id AS id, b.item_id AS itemId, b.booker_id AS bookerId, " +
+            "b.start_booking AS start, b.end_booking AS \"end\" " +
+            "FROM bookings b " +
+            "WHERE b.item_id = :itemId AND b.status IN ('APPROVED', 'WAITING')",
+            nativeQuery = true)
+    List<BookingShortView> findActiveByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT b.id AS id, i.id AS itemId, b.status AS status, b.start AS start, b.end AS end " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id IN :ids AND i.owner.id = :ownerId")
+    List<BookingApprovalView> findApprovalViews(@Param("ownerId") Long ownerId, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.id IN :ids AND EXISTS (SELECT a.id FROM Booking a " +
+            "WHERE a.item = b.item AND a.status = ru.practicum.shareit.booking.model.Status.APPROVED " +
+            "AND a.start < b.end AND a.end > b.start)")
+    List<Long> findIdsOverlappingApproved(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b " +
+            "SET b.status = CASE WHEN b.id IN :approvedIds THEN :approved ELSE :rejected END " +
+            "WHERE b.id IN :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids, @Param("approvedIds") Collection<Long> approvedIds,
+                       @Param("approved") Status approved, @Param("rejected") Status rejected);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Stream<BookingDto> streamAllByOwnerId(@Param("ownerId") Long ownerId);
 
 }
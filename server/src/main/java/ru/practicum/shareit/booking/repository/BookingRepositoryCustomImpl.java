@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byRole;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findDtos(BookingQuery bookingQuery) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> root = query.from(Booking.class);
+        Path<Object> item = root.get("item");
+        Path<Object> booker = root.get("booker");
+        Specification<Booking> specification = byRole(bookingQuery.getRole(), bookingQuery.getUserId())
+                .and(byState(bookingQuery.getState(), bookingQuery.getNow()))
+                .and(after(bookingQuery.getCursor()));
+        query.select(cb.construct(BookingDto.class,
+                        root.get("id"), root.get("start"), root.get("end"), root.get("status"),
+                        item.get("id"), item.get("name"), booker.get("id")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("start")), cb.desc(root.get("id")));
+        TypedQuery<BookingDto> typedQuery = entityManager.createQuery(query)
+                .setMaxResults(bookingQuery.getSize());
+        if (bookingQuery.getCursor() == null) {
+            typedQuery.setFirstResult(bookingQuery.getFrom());
+        }
+        return typedQuery.getResultList();
+    }
+}
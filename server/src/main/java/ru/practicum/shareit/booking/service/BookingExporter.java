@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class BookingExporter {
+
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId";
+    private static final int FLUSH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    @Getter
+    private final Duration timeout;
+
+    public BookingExporter(BookingRepository bookingRepository, UserService userService, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.bookings.export.timeout:30m}") Duration timeout) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportByOwner(Long ownerId, ExportFormat format) {
+        userService.checkUserExists(ownerId);
+        return output -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(ownerId, format, output));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void write(Long ownerId, ExportFormat format, OutputStream output) {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        int exported = 0;
+        try (Stream<BookingDto> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.newLine();
+            }
+            Iterator<BookingDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                BookingDto booking = iterator.next();
+                writer.write(format == ExportFormat.CSV ? toCsv(booking) : objectMapper.writeValueAsString(booking));
+                writer.newLine();
+                if (++exported % FLUSH_SIZE == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Выгружено {} бронирований владельца с id={}", exported, ownerId);
+    }
+
+    private static String toCsv(BookingDto booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                booking.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                booking.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                booking.getStatus().name(),
+                String.valueOf(booking.getItem().getId()),
+                escapeCsv(booking.getItem().getName()),
+                String.valueOf(booking.getBooker().getId()));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
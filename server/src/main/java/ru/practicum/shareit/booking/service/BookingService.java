@@ -1,19 +1,26 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookingService {
 
     BookingDto create(Long bookerId, BookingInputDto bookingInputDto);
 
+    List<BookingDto> createAll(Long bookerId, List<BookingInputDto> bookingInputDtos);
+
     BookingDto approve(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingApprovalResult> approveAll(Long userId, List<BookingApprovalDto> approvals);
+
     BookingDto getById(Long userId, Long bookingId);
 
-    Collection<BookingDto> getByUser(String state, Long userId, Integer from, Integer size);
+    Collection<BookingDto> getByUser(String state, Long userId, Integer from, Integer size, String cursor);
 
-    Collection<BookingDto> getByOwner(String state, Long userId, Integer from, Integer size);
+    Collection<BookingDto> getByOwner(String state, Long userId, Integer from, Integer size, String cursor);
 }
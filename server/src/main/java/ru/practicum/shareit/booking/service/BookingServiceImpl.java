@@ -1,29 +1,45 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDto;
 
@@ -36,6 +52,8 @@ public class BookingServiceImpl implements BookingService {
     private final UserMapper userMapper;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemCache itemCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Transactional
     @Override
@@ -44,27 +62,58 @@ public class BookingServiceImpl implements BookingService {
         User booker = userMapper.toUser(userService.getUserById(bookerId));
         Item item = itemRepository.findById(bookingInputDto.getItemId()).orElseThrow(() ->
                 new NotFoundException("Не существует товара с указанным id"));
-        if (!item.getAvailable()) {
-            throw new BadRequestException("Товар не доступен для бронирования");
-        } else if (item.getOwner().getId().equals(bookerId)) {
-            throw new NotFoundException("Нельзя бронировать собственные вещи");
-        } else if (booking.getStart() == null || booking.getStart().isBefore(LocalDateTime.now()) ||
-                booking.getEnd() == null || booking.getEnd().isBefore(LocalDateTime.now()) ||
-                booking.getEnd().isBefore(booking.getStart()) || booking.getStart().equals(booking.getEnd())) {
-            throw new BadRequestException("Некорректное время");
-        }
+        validate(booking, item, bookerId, LocalDateTime.now());
         booking.setBooker(booker);
         booking.setItem(item);
         booking.setStatus(Status.WAITING);
         Booking bookingToSave = bookingRepository.save(booking);
+        itemCache.evictOwnerBookings(item.getId());
+        itemAvailabilityIndex.add(item.getId(), bookingToSave.getId(), bookingToSave.getStart(), bookingToSave.getEnd());
         return toBookingDto(bookingToSave);
     }
 
+    @Transactional
+    @Override
+    public List<BookingDto> createAll(Long bookerId, List<BookingInputDto> bookingInputDtos) {
+        if (bookingInputDtos.isEmpty()) {
+            throw new BadRequestException("Не указаны бронирования");
+        }
+        User booker = userMapper.toUser(userService.getUserById(bookerId));
+        Set<Long> itemIds = bookingInputDtos.stream()
+                .map(BookingInputDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingInputDto bookingInputDto : bookingInputDtos) {
+            Booking booking = bookingMapper.toBooking(bookingInputDto);
+            booking.setId(null);
+            Item item = items.get(bookingInputDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Не существует товара с указанным id");
+            }
+            validate(booking, item, bookerId, now);
+            booking.setBooker(booker);
+            booking.setItem(item);
+            booking.setStatus(Status.WAITING);
+            bookings.add(booking);
+        }
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        savedBookings.forEach(booking -> itemAvailabilityIndex.add(booking.getItem().getId(), booking.getId(),
+                booking.getStart(), booking.getEnd()));
+        items.keySet().forEach(itemCache::evictOwnerBookings);
+        return savedBookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     @Override
     public BookingDto approve(Long userId, Long bookingId, Boolean approved) {
-        User booker = userMapper.toUser(userService.getUserById(userId));
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        userService.checkUserExists(userId);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() ->
                 new NotFoundException("Не существует бронирования с указанным id"));
         if (booking.getStatus().equals(Status.APPROVED)) {
             throw new BadRequestException("Статус уже установлен");
@@ -74,17 +123,77 @@ public class BookingServiceImpl implements BookingService {
         }
         if (approved) {
             booking.setStatus(Status.APPROVED);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+            }
+            itemAvailabilityIndex.add(booking.getItem().getId(), booking.getId(), booking.getStart(),
+                    booking.getEnd());
         } else {
             booking.setStatus(Status.REJECTED);
+            itemAvailabilityIndex.remove(booking.getItem().getId(), booking.getId());
         }
+        itemCache.evictOwnerBookings(booking.getItem().getId());
         return toBookingDto(booking);
     }
 
+    @Transactional
+    @Override
+    public List<BookingApprovalResult> approveAll(Long userId, List<BookingApprovalDto> approvals) {
+        userService.checkUserExists(userId);
+        Set<Long> requestedIds = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingApprovalView> bookings = requestedIds.isEmpty() ? Collections.<Long, BookingApprovalView>emptyMap()
+                : bookingRepository.findApprovalViews(userId, requestedIds).stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, Function.identity()));
+        Set<Long> toApprove = approvals.stream()
+                .filter(approval -> Boolean.TRUE.equals(approval.getApproved()))
+                .map(BookingApprovalDto::getBookingId)
+                .filter(bookings::containsKey)
+                .collect(Collectors.toSet());
+        Set<Long> overlapping = toApprove.isEmpty() ? Set.of()
+                : new HashSet<>(bookingRepository.findIdsOverlappingApproved(toApprove));
+        List<BookingApprovalResult> results = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        List<BookingApprovalView> approved = new ArrayList<>();
+        List<BookingApprovalView> rejected = new ArrayList<>();
+        for (BookingApprovalDto approval : approvals) {
+            BookingApprovalResult result = BookingApprovalResult.builder()
+                    .bookingId(approval.getBookingId())
+                    .build();
+            BookingApprovalView booking = bookings.get(approval.getBookingId());
+            if (approval.getBookingId() == null || approval.getApproved() == null) {
+                result.setError("Не указаны id бронирования или статус");
+            } else if (booking == null) {
+                result.setError("Не существует бронирования с указанным id у вещей пользователя");
+            } else if (!seen.add(booking.getId())) {
+                result.setError("Бронирование указано повторно");
+            } else if (booking.getStatus().equals(Status.APPROVED)) {
+                result.setError("Статус уже установлен");
+            } else if (approval.getApproved() && (overlapping.contains(booking.getId()) ||
+                    approved.stream().anyMatch(other -> overlaps(other, booking)))) {
+                result.setError("Вещь уже забронирована на пересекающийся период");
+            } else if (approval.getApproved()) {
+                approved.add(booking);
+                result.setStatus(Status.APPROVED);
+            } else {
+                rejected.add(booking);
+                result.setStatus(Status.REJECTED);
+            }
+            results.add(result);
+        }
+        updateStatuses(approved, rejected);
+        return results;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public BookingDto getById(Long userId, Long bookingId) {
-        User user = userMapper.toUser(userService.getUserById(userId));
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        userService.checkUserExists(userId);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow(() ->
                 new NotFoundException("Не существует бронирования с указанным id"));
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
             throw new NotFoundException("Пользователь не является ни владельцем товара, ни его арендатором");
@@ -94,65 +203,79 @@ public class BookingServiceImpl implements BookingService {
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<BookingDto> getByUser(String state, Long userId, Integer from, Integer size) {
-        User user = userMapper.toUser(userService.getUserById(userId));
-        List<Booking> bookings;
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findAllByBooker(user, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findAllByBookerAndStartBeforeAndEndAfter(user, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findAllByBookerAndEndBefore(user, LocalDateTime.now(), pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findAllByBookerAndStartAfter(user, LocalDateTime.now(), pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findAllByBookerAndStatus(user, Status.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findAllByBookerAndStatus(user, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    public Collection<BookingDto> getByUser(String state, Long userId, Integer from, Integer size, String cursor) {
+        userService.checkUserExists(userId);
+        return findBookings(BookingRole.BOOKER, state, userId, from, size, cursor);
     }
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<BookingDto> getByOwner(String state, Long userId, Integer from, Integer size) {
-        User owner = userMapper.toUser(userService.getUserById(userId));
-        List<Booking> bookings;
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findAllByItemOwner(owner, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findAllByItemOwnerAndStartBeforeAndEndAfter(owner, LocalDateTime.now(),
-                        LocalDateTime.now(), pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findAllByItemOwnerAndEndBefore(owner, LocalDateTime.now(), pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findAllByItemOwnerAndStartAfter(owner, LocalDateTime.now(), pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findAllByItemOwnerAndStatus(owner, Status.WAITING, pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findAllByItemOwnerAndStatus(owner, Status.REJECTED, pageable);
-                break;
-            default:
-                throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
+    public Collection<BookingDto> getByOwner(String state, Long userId, Integer from, Integer size, String cursor) {
+        userService.checkUserExists(userId);
+        return findBookings(BookingRole.OWNER, state, userId, from, size, cursor);
+    }
+
+    private void updateStatuses(List<BookingApprovalView> approved, List<BookingApprovalView> rejected) {
+        if (approved.isEmpty() && rejected.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        approved.forEach(booking -> {
+            ids.add(booking.getId());
+            approvedIds.add(booking.getId());
+        });
+        rejected.forEach(booking -> ids.add(booking.getId()));
+        try {
+            bookingRepository.updateStatuses(ids, approvedIds, Status.APPROVED, Status.REJECTED);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Вещь уже забронирована на пересекающийся период");
+        }
+        approved.forEach(booking -> itemAvailabilityIndex.add(booking.getItemId(), booking.getId(),
+                booking.getStart(), booking.getEnd()));
+        rejected.forEach(booking -> itemAvailabilityIndex.remove(booking.getItemId(), booking.getId()));
+        Stream.concat(approved.stream(), rejected.stream())
+                .map(BookingApprovalView::getItemId)
+                .distinct()
+                .forEach(itemCache::evictOwnerBookings);
+    }
+
+    private void validate(Booking booking, Item item, Long bookerId, LocalDateTime now) {
+        if (!item.getAvailable()) {
+            throw new BadRequestException("Товар не доступен для бронирования");
+        } else if (item.getOwner().getId().equals(bookerId)) {
+            throw new NotFoundException("Нельзя бронировать собственные вещи");
+        } else if (booking.getStart() == null || booking.getStart().isBefore(now) ||
+                booking.getEnd() == null || booking.getEnd().isBefore(now) ||
+                booking.getEnd().isBefore(booking.getStart()) || booking.getStart().equals(booking.getEnd())) {
+            throw new BadRequestException("Некорректное время");
+        }
+    }
+
+    private boolean overlaps(BookingApprovalView first, BookingApprovalView second) {
+        return first.getItemId().equals(second.getItemId()) &&
+                first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd());
+    }
+
+    private Collection<BookingDto> findBookings(BookingRole role, String state, Long userId, Integer from,
+                                                Integer size, String cursor) {
+        BookingQuery bookingQuery = BookingQuery.builder()
+                .role(role)
+                .userId(userId)
+                .state(toState(state))
+                .now(LocalDateTime.now())
+                .cursor(cursor == null ? null : BookingCursor.decode(cursor))
+                .from(from)
+                .size(size)
+                .build();
+        return bookingRepository.findDtos(bookingQuery);
+    }
+
+    private State toState(String state) {
+        try {
+            return State.valueOf(state);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown state: UNSUPPORTED_STATUS");
         }
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 }
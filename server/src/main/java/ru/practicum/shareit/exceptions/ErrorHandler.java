@@ -23,4 +23,11 @@ public class ErrorHandler {
         log.error("Некорректный запрос: {}", ex.getMessage());
         return new ErrorResponse(ex.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflictException(final ConflictException ex) {
+        log.error("Конфликт: {}", ex.getMessage());
+        return new ErrorResponse(ex.getMessage());
+    }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,12 +12,20 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequestMapping("/items")
@@ -23,6 +33,7 @@ import java.util.Collection;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
     private final String userIdHeader = "X-Sharer-User-Id";
 
     @PostMapping
@@ -30,6 +41,13 @@ public class ItemController {
         return itemService.create(itemDto, ownerId);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader(userIdHeader) Long ownerId, InputStream body,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        itemImporter.importItems(ownerId, body, response.getOutputStream());
+    }
+
     @PatchMapping("/{id}")
     public ItemDto update(@PathVariable Long id, @RequestBody InputItemDto itemDto,
                           @RequestHeader(userIdHeader) Long ownerId) {
@@ -37,10 +55,22 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ItemDto getById(@PathVariable Long id, @RequestHeader(userIdHeader) Long userId) {
+    public ItemDto getById(@PathVariable Long id, @RequestHeader(userIdHeader) Long userId, WebRequest request) {
+        if (request.checkNotModified(itemService.getItemEtag(id, userId))) {
+            return null;
+        }
         return itemService.getById(id, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable Long id, @RequestHeader(userIdHeader) Long userId,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(id, userId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemDto> getItemsByOwner(@RequestHeader(userIdHeader) Long ownerId,
                                                @RequestParam(defaultValue = "0") Integer from,
@@ -51,7 +81,11 @@ public class ItemController {
     @GetMapping("/search")
     public Collection<ItemDto> findItem(@RequestParam(name = "text") String text,
                                         @RequestParam(defaultValue = "0") Integer from,
-                                        @RequestParam(defaultValue = "10") Integer size) {
+                                        @RequestParam(defaultValue = "10") Integer size,
+                                        WebRequest request) {
+        if (request.checkNotModified(itemService.getSearchEtag())) {
+            return null;
+        }
         return itemService.findItem(text, from, size);
     }
 
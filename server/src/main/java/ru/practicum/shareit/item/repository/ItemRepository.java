@@ -2,21 +2,32 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.model.ItemRequest;
-import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerOrderById(User user, Pageable pageable);
+    List<Item> findAllByOwnerIdOrderById(Long ownerId, Pageable pageable);
 
     List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAndAvailable(String text1, String text2, Boolean available, Pageable pageable);
 
-    List<Item> findByItemRequest(ItemRequest itemRequest);
+    List<Item> findAllByItemRequestIdInOrderById(Collection<Long> requestIds);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT i.* FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Item> searchRankedByFullText(@Param("query") String query, @Param("offset") int offset,
+                                      @Param("limit") int limit);
 
 }
 
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class BookingIntervalTree {
+
+    private static final BookingIntervalTree EMPTY = new BookingIntervalTree(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private BookingIntervalTree(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ids.length];
+        buildMaxEnds(0, ids.length - 1);
+    }
+
+    public static BookingIntervalTree empty() {
+        return EMPTY;
+    }
+
+    public static BookingIntervalTree of(List<Interval> intervals) {
+        Interval[] sorted = intervals.toArray(new Interval[0]);
+        Arrays.sort(sorted, (a, b) -> a.start != b.start ? Long.compare(a.start, b.start) : Long.compare(a.id, b.id));
+        long[] ids = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].id;
+            starts[i] = sorted[i].start;
+            ends[i] = sorted[i].end;
+        }
+        return new BookingIntervalTree(ids, starts, ends);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public BookingIntervalTree with(long id, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = without(id);
+        long startMicros = toMicros(start);
+        int position = tree.upperBound(startMicros);
+        return new BookingIntervalTree(insert(tree.ids, position, id), insert(tree.starts, position, startMicros),
+                insert(tree.ends, position, toMicros(end)));
+    }
+
+    public BookingIntervalTree without(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return new BookingIntervalTree(remove(ids, i), remove(starts, i), remove(ends, i));
+            }
+        }
+        return this;
+    }
+
+    public List<AvailabilitySlotDto> freeSlots(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        long[] cursor = {fromMicros};
+        visitOverlapping(0, ids.length - 1, fromMicros, toMicros, (start, end) -> {
+            if (start > cursor[0]) {
+                slots.add(new AvailabilitySlotDto(fromMicros(cursor[0]), fromMicros(start)));
+            }
+            cursor[0] = Math.max(cursor[0], end);
+        });
+        if (cursor[0] < toMicros) {
+            slots.add(new AvailabilitySlotDto(fromMicros(cursor[0]), fromMicros(toMicros)));
+        }
+        return slots;
+    }
+
+    private void visitOverlapping(int lo, int hi, long from, long to, IntervalVisitor visitor) {
+        if (lo > hi || maxEnds[(lo + hi) >>> 1] <= from) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        visitOverlapping(lo, mid - 1, from, to, visitor);
+        if (starts[mid] >= to) {
+            return;
+        }
+        if (ends[mid] > from) {
+            visitor.visit(starts[mid], ends[mid]);
+        }
+        visitOverlapping(mid + 1, hi, from, to, visitor);
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long maxEnd = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid - 1), buildMaxEnds(mid + 1, hi)));
+        maxEnds[mid] = maxEnd;
+        return maxEnd;
+    }
+
+    private int upperBound(long start) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= start) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long[] insert(long[] values, int position, long value) {
+        long[] result = new long[values.length + 1];
+        System.arraycopy(values, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        return result;
+    }
+
+    private static long[] remove(long[] values, int position) {
+        long[] result = new long[values.length - 1];
+        System.arraycopy(values, 0, result, 0, position);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+        return result;
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    public static final class Interval {
+        private final long id;
+        private final long start;
+        private final long end;
+
+        public Interval(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = toMicros(start);
+            this.end = toMicros(end);
+        }
+    }
+
+    private interface IntervalVisitor {
+        void visit(long start, long end);
+    }
+}
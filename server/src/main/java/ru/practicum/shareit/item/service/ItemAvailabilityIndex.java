@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.util.Transactions.afterCommit;
+
+@Component
+public class ItemAvailabilityIndex {
+
+    private final Cache<Long, BookingIntervalTree> trees;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemAvailabilityIndex(MeterRegistry meterRegistry,
+                                 @Value("${shareit.cache.availability.maximum-bookings:1000000}") long maximumBookings) {
+        trees = Caffeine.newBuilder()
+                .maximumWeight(maximumBookings)
+                .weigher((Long itemId, BookingIntervalTree tree) -> tree.size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trees, "itemAvailability");
+    }
+
+    public BookingIntervalTree get(Long itemId, Supplier<BookingIntervalTree> loader) {
+        BookingIntervalTree tree = trees.getIfPresent(itemId);
+        if (tree == null) {
+            long generation = invalidations.get();
+            tree = loader.get();
+            BookingIntervalTree loaded = tree;
+            afterCommit(() -> {
+                if (invalidations.get() == generation) {
+                    trees.put(itemId, loaded);
+                }
+            });
+        }
+        return tree;
+    }
+
+    public void add(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            trees.asMap().computeIfPresent(itemId, (id, tree) -> tree.with(bookingId, start, end));
+        });
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            trees.asMap().computeIfPresent(itemId, (id, tree) -> tree.without(bookingId));
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            trees.invalidateAll();
+        });
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.util.Transactions.afterCommit;
+
+@Component
+public class ItemCache {
+
+    private final Cache<Long, CachedItem> items;
+    private final Cache<Long, OwnerBookings> ownerBookings;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemCache(MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.items.maximum-size:10000}") long maximumSize) {
+        items = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        ownerBookings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, OwnerBookings>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, OwnerBookings bookings, long currentTime) {
+                        return bookings.nanosToExpiry();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long itemId, OwnerBookings bookings, long currentTime,
+                                                  long currentDuration) {
+                        return bookings.nanosToExpiry();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, OwnerBookings bookings, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerBookings, "itemOwnerBookings");
+    }
+
+    public CachedItem getItem(Long itemId, Supplier<CachedItem> loader) {
+        CachedItem cachedItem = items.getIfPresent(itemId);
+        if (cachedItem == null) {
+            long generation = invalidations.get();
+            cachedItem = loader.get();
+            CachedItem loaded = cachedItem;
+            afterCommit(() -> {
+                if (invalidations.get() == generation) {
+                    items.put(itemId, loaded);
+                }
+            });
+        }
+        return cachedItem;
+    }
+
+    public OwnerBookings getOwnerBookings(Long itemId, Supplier<OwnerBookings> loader) {
+        OwnerBookings bookings = ownerBookings.getIfPresent(itemId);
+        if (bookings == null) {
+            long generation = invalidations.get();
+            bookings = loader.get();
+            OwnerBookings loaded = bookings;
+            afterCommit(() -> {
+                if (invalidations.get() == generation) {
+                    ownerBookings.put(itemId, loaded);
+                }
+            });
+        }
+        return bookings;
+    }
+
+    public void evictItem(Long itemId) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            items.invalidate(itemId);
+        });
+    }
+
+    public void evictOwnerBookings(Long itemId) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            ownerBookings.invalidate(itemId);
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            items.invalidateAll();
+            ownerBookings.invalidateAll();
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedItem {
+        private final Long ownerId;
+        private final ItemDto itemDto;
+
+        public ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(itemDto.getId())
+                    .name(itemDto.getName())
+                    .description(itemDto.getDescription())
+                    .available(itemDto.getAvailable())
+                    .comments(new ArrayList<>(itemDto.getComments()))
+                    .requestId(itemDto.getRequestId())
+                    .build();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OwnerBookings {
+        private final BookingShortDto lastBooking;
+        private final BookingShortDto nextBooking;
+
+        long nanosToExpiry() {
+            if (nextBooking == null) {
+                return Long.MAX_VALUE;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0,
+                    Duration.between(LocalDateTime.now(), nextBooking.getStart()).toMillis()));
+        }
+    }
+}
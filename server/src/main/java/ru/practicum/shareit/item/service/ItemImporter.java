@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+@Component
+@Slf4j
+public class ItemImporter {
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ItemImporter(ItemService itemService, UserService userService, ObjectMapper objectMapper,
+                        @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public void importItems(Long ownerId, InputStream input, OutputStream output) throws IOException {
+        userService.checkUserExists(ownerId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        List<ItemImportResult> results = new ArrayList<>();
+        List<InputItemDto> itemDtos = new ArrayList<>();
+        int lineNumber = 0;
+        int imported = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ItemImportResult result = ItemImportResult.builder()
+                    .line(lineNumber)
+                    .build();
+            InputItemDto itemDto = readItem(line);
+            if (itemDto == null) {
+                result.setError("Некорректный JSON");
+            } else {
+                itemDtos.add(itemDto);
+            }
+            results.add(result);
+            if (results.size() >= batchSize) {
+                imported += flush(ownerId, itemDtos, results, writer);
+            }
+        }
+        imported += flush(ownerId, itemDtos, results, writer);
+        log.info("Импортировано {} вещей пользователя с id={}", imported, ownerId);
+    }
+
+    private InputItemDto readItem(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return node.isObject() ? objectMapper.treeToValue(node, InputItemDto.class) : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private int flush(Long ownerId, List<InputItemDto> itemDtos, List<ItemImportResult> results,
+                      BufferedWriter writer) throws IOException {
+        int imported = 0;
+        Iterator<ItemImportResult> created = itemDtos.isEmpty() ? null
+                : itemService.createAll(itemDtos, ownerId).iterator();
+        for (ItemImportResult result : results) {
+            if (result.getError() == null) {
+                ItemImportResult createdResult = created.next();
+                result.setId(createdResult.getId());
+                result.setError(createdResult.getError());
+            }
+            if (result.getId() != null) {
+                imported++;
+            }
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.newLine();
+        }
+        writer.flush();
+        itemDtos.clear();
+        results.clear();
+        return imported;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, int offset, int limit);
+
+    default void index(Item item) {
+    }
+
+    default void remove(Collection<Long> itemIds) {
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.Transactions.afterCommit;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+@Slf4j
+public class ItemSearchIndex implements ItemSearchEngine {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> postings = new HashMap<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<IndexedItem> indexedItems = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet available = new BitSet();
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slots.clear();
+            indexedItems.clear();
+            freeSlots.clear();
+            available.clear();
+            items.forEach(item -> put(IndexedItem.of(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Построен поисковый индекс по {} вещам", items.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        IndexedItem indexedItem = IndexedItem.of(item);
+        afterCommit(() -> apply(indexedItem));
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        List<Long> ids = List.copyOf(itemIds);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(this::free);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<Item> search(String text, int offset, int limit) {
+        List<Long> ids = searchIds(text, offset, limit);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return itemRepository.findAllById(ids)
+                .stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    List<Long> searchIds(String text, int offset, int limit) {
+        String query = lower(text);
+        List<Long> ids = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) available.clone();
+            for (long gram : grams(query)) {
+                BitSet posting = postings.get(gram);
+                if (posting == null) {
+                    return ids;
+                }
+                candidates.and(posting);
+            }
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                IndexedItem indexedItem = indexedItems.get(slot);
+                if (indexedItem.matches(query)) {
+                    ids.add(indexedItem.getId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(ids);
+        return ids.subList(Math.min(offset, ids.size()), (int) Math.min((long) offset + limit, ids.size()));
+    }
+
+    int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(IndexedItem indexedItem) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(indexedItem.getId());
+            if (slot != null) {
+                clear(slot);
+            }
+            put(indexedItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void free(Long itemId) {
+        Integer slot = slots.remove(itemId);
+        if (slot != null) {
+            clear(slot);
+            indexedItems.set(slot, null);
+            freeSlots.push(slot);
+        }
+    }
+
+    private void clear(int slot) {
+        for (long gram : grams(indexedItems.get(slot))) {
+            BitSet posting = postings.get(gram);
+            posting.clear(slot);
+            if (posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+        available.clear(slot);
+    }
+
+    private void put(IndexedItem indexedItem) {
+        int slot = slots.computeIfAbsent(indexedItem.getId(), id -> allocateSlot());
+        indexedItems.set(slot, indexedItem);
+        available.set(slot, indexedItem.isAvailable());
+        grams(indexedItem).forEach(gram -> postings.computeIfAbsent(gram, key -> new BitSet()).set(slot));
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        indexedItems.add(null);
+        return indexedItems.size() - 1;
+    }
+
+    private static Set<Long> grams(IndexedItem indexedItem) {
+        Set<Long> grams = grams(indexedItem.getName());
+        grams.addAll(grams(indexedItem.getDescription()));
+        return grams;
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+
+        static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(), lower(item.getName()), lower(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 public interface ItemService {
 
     ItemDto create(InputItemDto itemDto, Long ownerId);
 
+    List<ItemImportResult> createAll(List<InputItemDto> itemDtos, Long ownerId);
+
     ItemDto update(Long id, InputItemDto itemDto, Long ownerId);
 
     ItemDto getById(Long id, Long userId);
 
+    String getItemEtag(Long id, Long userId);
+
+    List<AvailabilitySlotDto> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to);
+
     Collection<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size);
 
     Collection<ItemDto> findItem(String text, Integer from, Integer size);
 
+    String getSearchEtag();
+
     CommentDto postComment(Long authorId, Long itemId, CommentDto commentDto);
 
 }
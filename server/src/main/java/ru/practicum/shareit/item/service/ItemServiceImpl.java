@@ -7,13 +7,17 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -25,11 +29,18 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingShortDto;
@@ -43,24 +54,21 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemMapper itemMapper;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemCache itemCache;
+    private final ItemVersions itemVersions;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Transactional
     @Override
     public ItemDto create(InputItemDto itemDto, Long ownerId) {
         Item newItem = itemMapper.toItem(itemDto);
-        if (newItem.getName() == null || newItem.getName().isBlank()) {
-            throw new BadRequestException("Имя не может быть пустым");
-        }
-        if (newItem.getDescription() == null || newItem.getDescription().isBlank()) {
-            throw new BadRequestException("Описание не может быть пустым");
-        }
-        if (newItem.getAvailable() == null) {
-            throw new BadRequestException("Статус не может быть пустым");
-        }
+        validate(newItem);
         User owner = userRepository.findById(ownerId).orElseThrow(() ->
                 new NotFoundException("Пользователь с указанным id не существует"));
         newItem.setOwner(owner);
@@ -70,10 +78,54 @@ public class ItemServiceImpl implements ItemService {
             newItem.setItemRequest(itemRequest);
         }
         Item item = itemRepository.save(newItem);
+        itemSearchEngine.index(item);
+        itemVersions.touchCatalog();
         log.info("Добавлена новая вещь с id={}", item.getId());
         return itemMapper.toItemDto(item);
     }
 
+    @Transactional
+    @Override
+    public List<ItemImportResult> createAll(List<InputItemDto> itemDtos, Long ownerId) {
+        User owner = userRepository.getReferenceById(ownerId);
+        Set<Long> requestIds = itemDtos.stream()
+                .map(InputItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of() : itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<ItemImportResult> results = new ArrayList<>();
+        List<Item> newItems = new ArrayList<>();
+        List<ItemImportResult> createdResults = new ArrayList<>();
+        for (InputItemDto itemDto : itemDtos) {
+            Item newItem = itemMapper.toItem(itemDto);
+            newItem.setId(null);
+            ItemImportResult result = new ItemImportResult();
+            try {
+                validate(newItem);
+                if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                    throw new NotFoundException("Не существует запроса с указанным id");
+                }
+                newItem.setOwner(owner);
+                newItem.setItemRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+                newItems.add(newItem);
+                createdResults.add(result);
+            } catch (BadRequestException | NotFoundException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+        List<Item> items = itemRepository.saveAll(newItems);
+        for (int i = 0; i < items.size(); i++) {
+            itemSearchEngine.index(items.get(i));
+            createdResults.get(i).setId(items.get(i).getId());
+        }
+        itemVersions.touchCatalog();
+        log.info("Добавлено {} вещей пользователя с id={}", items.size(), ownerId);
+        return results;
+    }
+
     @Transactional
     @Override
     public ItemDto update(Long id, InputItemDto itemDto, Long ownerId) {
@@ -91,70 +143,137 @@ public class ItemServiceImpl implements ItemService {
         if (itemMapper.toItem(itemDto).getAvailable() != null) {
             updatedItem.setAvailable(itemDto.getAvailable());
         }
-        log.info("Обновлена вещь с id={}", updatedItem.getId());
-        return itemMapper.toItemDto(itemRepository.save(updatedItem));
+        Item item = itemRepository.save(updatedItem);
+        itemSearchEngine.index(item);
+        itemCache.evictItem(item.getId());
+        itemVersions.touchItem(item.getId());
+        itemVersions.touchCatalog();
+        log.info("Обновлена вещь с id={}", item.getId());
+        return itemMapper.toItemDto(item);
     }
 
     @Transactional(readOnly = true)
     @Override
     public ItemDto getById(Long id, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException("Пользователь с указанным id не существует"));
+        userService.checkUserExists(userId);
+        ItemCache.CachedItem cachedItem = itemCache.getItem(id, () -> loadItem(id));
+        ItemDto itemDto = cachedItem.toItemDto();
+        if (cachedItem.getOwnerId().equals(userId)) {
+            ItemCache.OwnerBookings ownerBookings = itemCache.getOwnerBookings(id, () -> loadOwnerBookings(id));
+            itemDto.setLastBooking(ownerBookings.getLastBooking());
+            itemDto.setNextBooking(ownerBookings.getNextBooking());
+        }
+        log.info("Получена вещь с id={}", id);
+        return itemDto;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getItemEtag(Long id, Long userId) {
+        long version = itemVersions.item(id);
+        userService.checkUserExists(userId);
+        ItemCache.CachedItem cachedItem = itemCache.getItem(id, () -> loadItem(id));
+        if (!cachedItem.getOwnerId().equals(userId)) {
+            return itemVersions.etag("item", id, version);
+        }
+        ItemCache.OwnerBookings ownerBookings = itemCache.getOwnerBookings(id, () -> loadOwnerBookings(id));
+        return itemVersions.etag("item", id, version, "owner", bookingId(ownerBookings.getLastBooking()),
+                bookingId(ownerBookings.getNextBooking()));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to) {
+        userService.checkUserExists(userId);
+        LocalDateTime start = (from != null ? from : LocalDateTime.now()).truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime end = (to != null ? to : start.plusMonths(1)).truncatedTo(ChronoUnit.MICROS);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Некорректный период");
+        }
+        itemCache.getItem(id, () -> loadItem(id));
+        BookingIntervalTree bookings = itemAvailabilityIndex.get(id, () -> loadBookingIntervals(id));
+        log.info("Получены свободные периоды вещи с id={}", id);
+        return bookings.freeSlots(start, end);
+    }
+
+    private BookingIntervalTree loadBookingIntervals(Long id) {
+        return BookingIntervalTree.of(bookingRepository.findActiveByItemId(id).stream()
+                .map(booking -> new BookingIntervalTree.Interval(booking.getId(), booking.getStart(), booking.getEnd()))
+                .collect(Collectors.toList()));
+    }
+
+    private static Long bookingId(BookingShortDto booking) {
+        return booking == null ? null : booking.getId();
+    }
+
+    private void validate(Item item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            throw new BadRequestException("Имя не может быть пустым");
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            throw new BadRequestException("Описание не может быть пустым");
+        }
+        if (item.getAvailable() == null) {
+            throw new BadRequestException("Статус не может быть пустым");
+        }
+    }
+
+    private ItemCache.CachedItem loadItem(Long id) {
         Item item = itemRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("Предмет с указанным id не существует"));
         ItemDto itemDto = itemMapper.toItemDto(item);
-        if (item.getOwner().getId().equals(userId)) {
-            Booking lastBooking = bookingRepository.findFirstByItemAndStatusEqualsAndStartLessThan(item,
-                    Status.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
-            if (lastBooking != null) {
-                itemDto.setLastBooking(toBookingShortDto(lastBooking));
-            } else {
-                itemDto.setLastBooking(null);
-            }
-            Booking nextBooking = bookingRepository.findFirstByItemAndStatusEqualsAndStartAfter(item,
-                    Status.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-            if (nextBooking != null) {
-                itemDto.setNextBooking(toBookingShortDto(nextBooking));
+        List<Comment> comments = commentRepository.findAllByItemId(item.getId(),
+                Sort.by(Sort.Direction.DESC, "created"));
+        itemDto.setComments(comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList()));
+        return new ItemCache.CachedItem(item.getOwner().getId(), itemDto);
+    }
+
+    private ItemCache.OwnerBookings loadOwnerBookings(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        BookingShortDto lastBooking = null;
+        BookingShortDto nextBooking = null;
+        for (BookingShortView booking : bookingRepository.findLastAndNextApprovedByItemIds(List.of(id), now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBooking = toBookingShortDto(booking);
             } else {
-                itemDto.setNextBooking(null);
+                nextBooking = toBookingShortDto(booking);
             }
         }
-        List<Comment> comments = commentRepository.findAllByItemId(item.getId(),
-                Sort.by(Sort.Direction.DESC, "created"));
-        List<CommentDto> commentDtos = comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
-        itemDto.setComments(commentDtos);
-        log.info("Получена вещь с id={}", id);
-        return itemDto;
+        return new ItemCache.OwnerBookings(lastBooking, nextBooking);
     }
 
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size) {
-        User user = userRepository.findById(ownerId).orElseThrow(() ->
-                new NotFoundException("Пользователь с указанным id не существует"));
+        userService.checkUserExists(ownerId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
-        List<Item> items = itemRepository.findAllByOwnerOrderById(user, pageable);
+        List<Item> items = itemRepository.findAllByOwnerIdOrderById(ownerId, pageable);
         List<ItemDto> itemDtos = items.stream().map(itemMapper::toItemDto).collect(Collectors.toList());
-        List<Comment> comments = commentRepository.findAllByItemIdIn(items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList()), Sort.by(Sort.Direction.DESC, "created"));
         log.info("Получен список вещей пользователя с id={}", ownerId);
-        itemDtos.forEach(itemDto -> {
-            Booking lastBooking = bookingRepository.findFirstByItemIdAndStatusEqualsAndStartLessThan(itemDto.getId(),
-                    Status.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.DESC, "start"));
-            if (lastBooking != null) {
-                itemDto.setLastBooking(toBookingShortDto(lastBooking));
-            } else {
-                itemDto.setLastBooking(null);
-            }
-            Booking nextBooking = bookingRepository.findFirstByItemIdAndStatusEqualsAndStartAfter(itemDto.getId(),
-                    Status.APPROVED, LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "start"));
-            if (nextBooking != null) {
-                itemDto.setNextBooking(toBookingShortDto(nextBooking));
+        if (items.isEmpty()) {
+            return itemDtos;
+        }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Comment> comments = commentRepository.findAllByItemIdIn(itemIds, Sort.by(Sort.Direction.DESC, "created"));
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now).forEach(booking -> {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(booking.getItemId(), toBookingShortDto(booking));
             } else {
-                itemDto.setNextBooking(null);
+                nextBookings.put(booking.getItemId(), toBookingShortDto(booking));
             }
-            setComments(itemDto, comments);
+        });
+        Map<Long, List<CommentDto>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        itemDtos.forEach(itemDto -> {
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+            itemDto.setComments(commentsByItem.getOrDefault(itemDto.getId(), new ArrayList<>()));
         });
         return itemDtos;
     }
@@ -162,18 +281,21 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public Collection<ItemDto> findItem(String text, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.ASC, "id"));
         if (text.isEmpty()) {
             return new ArrayList<>();
         }
         log.info("Получен результат поиска подстроки {}", text);
-        return itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCaseAndAndAvailable(text, text,
-                        true, pageable)
+        return itemSearchEngine.search(text, (from / size) * size, size)
                 .stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getSearchEtag() {
+        return itemVersions.etag("search", itemVersions.catalog());
+    }
+
 
     @Transactional
     @Override
@@ -194,14 +316,9 @@ public class ItemServiceImpl implements ItemService {
         comment.setAuthor(author);
         comment.setItem(item);
         comment.setCreated(LocalDateTime.now());
-        return toCommentDto(commentRepository.save(comment));
-    }
-
-    private void setComments(ItemDto itemDto, List<Comment> comments) {
-        itemDto.setComments(comments.stream()
-                .filter(comment -> comment.getItem().getId().equals(itemDto.getId()))
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList())
-        );
+        Comment savedComment = commentRepository.save(comment);
+        itemCache.evictItem(itemId);
+        itemVersions.touchItem(itemId);
+        return toCommentDto(savedComment);
     }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static ru.practicum.shareit.util.Transactions.afterCommit;
+
+@Component
+public class ItemVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLongArray items;
+
+    public ItemVersions(@Value("${shareit.versions.items.stripes:4096}") int stripes) {
+        items = new AtomicLongArray(Integer.highestOneBit(Math.max(1, stripes - 1) << 1));
+    }
+
+    public long item(Long itemId) {
+        return items.get(stripe(itemId));
+    }
+
+    public long catalog() {
+        return catalog.get();
+    }
+
+    public void touchItem(Long itemId) {
+        afterCommit(() -> items.set(stripe(itemId), clock.incrementAndGet()));
+    }
+
+    public void touchCatalog() {
+        afterCommit(() -> catalog.set(clock.incrementAndGet()));
+    }
+
+    public String etag(Object... parts) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (Object part : parts) {
+            etag.append('-').append(part);
+        }
+        return etag.append('"').toString();
+    }
+
+    private int stripe(Long itemId) {
+        return Long.hashCode(itemId * 0x9E3779B97F4A7C15L) & (items.length() - 1);
+    }
+}
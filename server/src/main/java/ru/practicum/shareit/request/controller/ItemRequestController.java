@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.AllArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.InputItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -37,7 +38,11 @@ public class ItemRequestController {
     @GetMapping("/all")
     public List<ItemRequestDto> getAllRequests(@RequestHeader(userIdHeader) Long requesterId,
                                                @RequestParam(defaultValue = "0") Integer from,
-                                               @RequestParam(defaultValue = "10") Integer size) {
+                                               @RequestParam(defaultValue = "10") Integer size,
+                                               WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getAllRequestsEtag(requesterId))) {
+            return null;
+        }
         return itemRequestService.getAllRequests(requesterId, from, size);
     }
 }
\ No newline at end of file
@@ -14,4 +14,6 @@ public interface ItemRequestService {
     ItemRequestDto  getRequestById(Long requesterId, Long requestId);
 
     List<ItemRequestDto> getAllRequests(Long requesterId, Integer from, Integer size);
+
+    String getAllRequestsEtag(Long requesterId);
 }
\ No newline at end of file
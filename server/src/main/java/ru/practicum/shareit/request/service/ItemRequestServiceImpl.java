@@ -10,8 +10,8 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemVersions;
 import ru.practicum.shareit.request.dto.InputItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -24,6 +24,8 @@ import ru.practicum.shareit.user.service.UserService;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @AllArgsConstructor
@@ -37,6 +39,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
+    private final ItemVersions itemVersions;
 
     @Transactional
     @Override
@@ -45,14 +48,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest itemRequest = itemRequestMapper.toItemRequest(inputItemRequestDto);
         itemRequest.setRequester(requester);
         itemRequest.setCreated(LocalDateTime.now());
-        log.info("Добавлен новый запрос вещи с id={}", itemRequest.getId());
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest));
+        ItemRequest savedRequest = itemRequestRepository.save(itemRequest);
+        itemVersions.touchCatalog();
+        log.info("Добавлен новый запрос вещи с id={}", savedRequest.getId());
+        return itemRequestMapper.toItemRequestDto(savedRequest);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getRequestsByRequester(Long requesterId) {
-        User requester = userMapper.toUser(userService.getUserById(requesterId));
+        userService.checkUserExists(requesterId);
         List<ItemRequest> requests = itemRequestRepository.findAllByRequesterId(requesterId, Sort.by(Sort.Direction.DESC, "created"));
         log.info("Получен список запросов пользователя с id={}", requesterId);
         return addItems(requests);
@@ -62,7 +67,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     @Override
     public ItemRequestDto getRequestById(Long requesterId, Long requestId) {
-        User requester = userMapper.toUser(userService.getUserById(requesterId));
+        userService.checkUserExists(requesterId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new NotFoundException("Не существует запроса бронирования с указанным id"));
         List<ItemRequest> requests = new ArrayList<>();
@@ -74,7 +79,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllRequests(Long requesterId, Integer from, Integer size) {
-        User requester = userMapper.toUser(userService.getUserById(requesterId));
+        userService.checkUserExists(requesterId);
         Pageable pageable = PageRequest.of(from / size, size,
                 Sort.by(Sort.Direction.DESC, "created"));
         List<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdNot(requesterId, pageable);
@@ -82,16 +87,29 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return addItems(requests);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public String getAllRequestsEtag(Long requesterId) {
+        long version = itemVersions.catalog();
+        userService.checkUserExists(requesterId);
+        return itemVersions.etag("requests", requesterId, version);
+    }
+
     private List<ItemRequestDto> addItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findAllByItemRequestIdInOrderById(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemDto, Collectors.toList())));
         List<ItemRequestDto> reqestDtos = new ArrayList<>();
         for (ItemRequest request : requests) {
-            List<Item> items =  itemRepository.findByItemRequest(request);
-            List<ItemDto> itemDto = new ArrayList<>();
-            for (Item item : items) {
-                itemDto.add(itemMapper.toItemDto(item));
-            }
             ItemRequestDto requestDto = itemRequestMapper.toItemRequestDto(request);
-            requestDto.setItems(itemDto);
+            requestDto.setItems(itemsByRequest.getOrDefault(request.getId(), new ArrayList<>()));
             reqestDtos.add(requestDto);
         }
         return reqestDtos;
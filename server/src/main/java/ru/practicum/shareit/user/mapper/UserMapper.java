@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.mapper;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserRecord;
 import ru.practicum.shareit.user.model.User;
 
 @Component
@@ -24,4 +25,12 @@ public class UserMapper {
                 .email(user.getEmail())
                 .build();
     }
+
+    public UserDto toUserDto(UserRecord user) {
+        return UserDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
 }
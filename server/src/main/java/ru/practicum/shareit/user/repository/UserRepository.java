@@ -1,10 +1,17 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.user.dto.UserRecord;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserRecord(u.id, u.name, u.email) FROM User u WHERE u.id = :id")
+    Optional<UserRecord> findRecordById(@Param("id") Long id);
 }
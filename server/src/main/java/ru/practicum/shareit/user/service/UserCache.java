@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserRecord;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.util.Transactions.afterCommit;
+
+@Component
+public class UserCache {
+
+    private final Cache<Long, UserRecord> users;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.users.maximum-size:10000}") long maximumSize) {
+        users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    public UserRecord get(Long id, Supplier<UserRecord> loader) {
+        UserRecord user = users.getIfPresent(id);
+        if (user == null) {
+            long generation = invalidations.get();
+            user = loader.get();
+            UserRecord loaded = user;
+            afterCommit(() -> {
+                if (invalidations.get() == generation) {
+                    users.put(id, loaded);
+                }
+            });
+        }
+        return user;
+    }
+
+    public void evict(Long id) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet();
+            users.invalidate(id);
+        });
+    }
+}
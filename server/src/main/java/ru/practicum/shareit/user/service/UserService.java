@@ -10,6 +10,8 @@ public interface UserService {
 
     UserDto getUserById(Long id);
 
+    void checkUserExists(Long id);
+
     UserDto create(UserDto userDto);
 
     UserDto update(Long id, UserDto userDto);
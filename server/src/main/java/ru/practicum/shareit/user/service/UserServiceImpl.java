@@ -5,12 +5,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCache;
+import ru.practicum.shareit.item.service.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemVersions;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserRecord;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,7 +27,14 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final ItemVersions itemVersions;
+    private final ItemCache itemCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Transactional(readOnly = true)
     @Override
@@ -35,15 +50,20 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserById(Long id) {
         log.info("Получен пользователь с id={}", id);
-        User user = userRepository.findById(id).orElseThrow(() ->
-                new NotFoundException("Пользователь с указанным id не существует"));
-        return userMapper.toUserDto(user);
+        return userMapper.toUserDto(getUserRecord(id));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void checkUserExists(Long id) {
+        getUserRecord(id);
     }
 
     @Transactional
     @Override
     public UserDto create(UserDto userDto) {
         User user = userRepository.save(userMapper.toUser(userDto));
+        userCache.evict(user.getId());
         log.info("Создан новый пользователь с id={}", user.getId());
         return userMapper.toUserDto(user);
     }
@@ -55,10 +75,16 @@ public class UserServiceImpl implements UserService {
                 new NotFoundException("Пользователь с указанным id не существует"));
         if (userDto.getName() != null && !userDto.getName().isBlank()) {
             updatedUser.setName(userDto.getName());
+            commentRepository.findItemIdsByAuthorId(id).forEach(itemId -> {
+                itemCache.evictItem(itemId);
+                itemVersions.touchItem(itemId);
+            });
+            itemVersions.touchCatalog();
         }
         if (userDto.getEmail() != null && !userDto.getEmail().isBlank()) {
             updatedUser.setEmail(userDto.getEmail());
         }
+        userCache.evict(id);
         log.info("Обновлен пользователь с id={}", id);
         return userMapper.toUserDto(userRepository.save(updatedUser));
     }
@@ -67,6 +93,22 @@ public class UserServiceImpl implements UserService {
     @Override
     public void delete(Long id) {
         log.info("Удален пользователь с id={}", id);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(id);
+        List<Long> commentedItemIds = commentRepository.findItemIdsByAuthorId(id);
         userRepository.deleteById(id);
+        commentedItemIds.forEach(itemId -> {
+            itemCache.evictItem(itemId);
+            itemVersions.touchItem(itemId);
+        });
+        itemSearchEngine.remove(itemIds);
+        userCache.evict(id);
+        itemVersions.touchCatalog();
+        itemCache.invalidateAll();
+        itemAvailabilityIndex.invalidateAll();
+    }
+
+    private UserRecord getUserRecord(Long id) {
+        return userCache.get(id, () -> userRepository.findRecordById(id).orElseThrow(() ->
+                new NotFoundException("Пользователь с указанным id не существует")));
     }
 }
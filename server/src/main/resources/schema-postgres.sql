@@ -0,0 +1,16 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_waiting ON bookings (booker_id, start_booking DESC)
+  WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_booking DESC)
+  WHERE status = 'WAITING';
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_approved_overlap
+  EXCLUDE USING GIST (item_id WITH =, tsrange(start_booking, end_booking) WITH &&)
+  WHERE (status = 'APPROVED');
@@ -1,21 +1,27 @@
 DROP TABLE IF EXISTS users, requests, items, bookings, comments;
 
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  id BIGINT PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL,
   CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests(
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  id BIGINT PRIMARY KEY NOT NULL,
   description VARCHAR(512) NOT NULL,
   requester_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
   created TIMESTAMP WITHOUT TIME ZONE
 );
 
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  id BIGINT PRIMARY KEY NOT NULL,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(512) NOT NULL,
   available BOOLEAN NOT NULL,
@@ -24,7 +30,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  id BIGINT PRIMARY KEY NOT NULL,
   item_id BIGINT REFERENCES items(id) ON DELETE CASCADE NOT NULL,
   booker_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL,
   start_booking TIMESTAMP WITHOUT TIME ZONE,
@@ -33,9 +39,17 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments(
-  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+  id BIGINT PRIMARY KEY NOT NULL,
   text VARCHAR(1000),
   author_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL,
   item_id BIGINT REFERENCES items(id) ON DELETE CASCADE NOT NULL,
   created TIMESTAMP WITHOUT TIME ZONE
 );
+
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_booking DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_booking);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_booking DESC);
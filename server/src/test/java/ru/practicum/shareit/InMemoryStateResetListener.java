@@ -0,0 +1,60 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.util.ReflectionUtils;
+import ru.practicum.shareit.item.service.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.service.ItemCache;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Field;
+import java.util.List;
+
+public class InMemoryStateResetListener extends AbstractTestExecutionListener {
+
+    private static final List<Class<?>> CACHES = List.of(UserCache.class, ItemCache.class,
+            ItemAvailabilityIndex.class);
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        ApplicationContext context = testContext.getApplicationContext();
+        CACHES.forEach(type -> context.getBeanProvider(type).ifAvailable(InMemoryStateResetListener::invalidateCaches));
+        context.getBeanProvider(EntityManagerFactory.class).ifAvailable(InMemoryStateResetListener::resetIdOptimizers);
+    }
+
+    private static void resetIdOptimizers(EntityManagerFactory entityManagerFactory) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersisters().values()
+                .stream()
+                .map(EntityPersister::getIdentifierGenerator)
+                .filter(SequenceStyleGenerator.class::isInstance)
+                .map(generator -> ((SequenceStyleGenerator) generator).getOptimizer())
+                .filter(PooledOptimizer.class::isInstance)
+                .forEach(optimizer -> {
+                    Field state = ReflectionUtils.findField(PooledOptimizer.class, "noTenantState");
+                    ReflectionUtils.makeAccessible(state);
+                    ReflectionUtils.setField(state, optimizer, null);
+                });
+    }
+
+    private static void invalidateCaches(Object component) {
+        ReflectionUtils.doWithFields(component.getClass(), field -> {
+            ReflectionUtils.makeAccessible(field);
+            Cache<?, ?> cache = (Cache<?, ?>) field.get(component);
+            if (cache != null) {
+                cache.invalidateAll();
+            }
+        }, field -> Cache.class.isAssignableFrom(field.getType()));
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SequenceCallCounter implements StatementInspector {
+
+    private static final AtomicLong CALLS = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        String lowerCase = sql.toLowerCase();
+        if (lowerCase.contains("next value for") || lowerCase.contains("nextval")) {
+            CALLS.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public static long reset() {
+        return CALLS.getAndSet(0);
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.InputItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.SequenceCallCounter"
+})
+@AutoConfigureMockMvc
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
+class StatementCountTests {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+    private BookingDto booking;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(new UserDto(null, "owner", "owner@mail.ru"));
+        booker = userService.create(new UserDto(null, "booker", "booker@mail.ru"));
+        ItemRequestDto request = itemRequestService.createRequest(InputItemRequestDto.builder()
+                .description("request")
+                .build(), booker.getId());
+        for (int i = 0; i < 3; i++) {
+            item = itemService.create(InputItemDto.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .requestId(request.getId())
+                    .build(), owner.getId());
+            booking = bookingService.create(booker.getId(), BookingInputDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .build());
+        }
+    }
+
+    @Test
+    void shouldCreateBookingWithFixedNumberOfStatements() {
+        assertStatements(2, post("/bookings")
+                .header(USER_ID_HEADER, booker.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\": " + item.getId() + ", \"start\": \"" + LocalDateTime.now().plusDays(3) +
+                        "\", \"end\": \"" + LocalDateTime.now().plusDays(4) + "\"}"));
+    }
+
+    @Test
+    void shouldCreateBookingsInBatchWithSingleItemQueryAndInsert() {
+        String booking = "{\"itemId\": " + item.getId() + ", \"start\": \"" + LocalDateTime.now().plusDays(3) +
+                "\", \"end\": \"" + LocalDateTime.now().plusDays(4) + "\"}";
+        List<String> bookings = List.of(booking, booking, booking, booking);
+        assertStatements(2, post("/bookings/batch")
+                .header(USER_ID_HEADER, booker.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(", ", bookings) + "]"));
+    }
+
+    @Test
+    void shouldApproveBookingWithFixedNumberOfStatements() {
+        assertStatements(3, patch("/bookings/" + booking.getId())
+                .header(USER_ID_HEADER, owner.getId())
+                .param("approved", "true"));
+    }
+
+    @Test
+    void shouldApproveBookingsInBatchWithFixedNumberOfStatements() {
+        assertStatements(4, patch("/bookings/batch")
+                .header(USER_ID_HEADER, owner.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"bookingId\": " + (booking.getId() - 2) + ", \"approved\": true}, " +
+                        "{\"bookingId\": " + (booking.getId() - 1) + ", \"approved\": false}, " +
+                        "{\"bookingId\": " + booking.getId() + ", \"approved\": true}]"));
+    }
+
+    @Test
+    void shouldGetBookingWithFixedNumberOfStatements() {
+        assertStatements(1, get("/bookings/" + booking.getId())
+                .header(USER_ID_HEADER, booker.getId()));
+    }
+
+    @Test
+    void shouldGetBookingsWithFixedNumberOfStatements() {
+        assertStatements(1, get("/bookings")
+                .header(USER_ID_HEADER, booker.getId()));
+        assertStatements(2, get("/bookings/owner")
+                .header(USER_ID_HEADER, owner.getId()));
+        assertStatements(1, get("/bookings/owner")
+                .header(USER_ID_HEADER, owner.getId()));
+    }
+
+    @Test
+    void shouldGetItemWithFixedNumberOfStatements() {
+        double hits = itemCacheHits();
+        assertStatements(4, get("/items/" + item.getId())
+                .header(USER_ID_HEADER, owner.getId()));
+        assertStatements(0, get("/items/" + item.getId())
+                .header(USER_ID_HEADER, booker.getId()));
+        assertStatements(0, get("/items/" + item.getId())
+                .header(USER_ID_HEADER, owner.getId()));
+        assertEquals(hits + 5, itemCacheHits());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReloadCachedItemAfterChanges() {
+        assertStatements(4, get("/items/" + item.getId())
+                .header(USER_ID_HEADER, owner.getId()));
+        bookingService.approve(owner.getId(), booking.getId(), true);
+        mockMvc.perform(get("/items/" + item.getId())
+                        .header(USER_ID_HEADER, owner.getId()))
+                .andExpect(jsonPath("$.nextBooking.id").value(booking.getId()));
+        itemService.update(item.getId(), InputItemDto.builder()
+                .name("updated")
+                .build(), owner.getId());
+        mockMvc.perform(get("/items/" + item.getId())
+                        .header(USER_ID_HEADER, booker.getId()))
+                .andExpect(jsonPath("$.name").value("updated"))
+                .andExpect(jsonPath("$.nextBooking").isEmpty());
+    }
+
+    @Test
+    void shouldGetItemsByOwnerWithFixedNumberOfStatements() {
+        assertStatements(4, get("/items")
+                .header(USER_ID_HEADER, owner.getId()));
+        assertStatements(1, get("/items/search")
+                .header(USER_ID_HEADER, owner.getId())
+                .param("text", "item"));
+    }
+
+    @Test
+    void shouldGetRequestsWithFixedNumberOfStatements() {
+        assertStatements(2, get("/requests")
+                .header(USER_ID_HEADER, booker.getId()));
+        assertStatements(3, get("/requests/all")
+                .header(USER_ID_HEADER, owner.getId()));
+    }
+
+    private double itemCacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit").functionCounter().count();
+    }
+
+    @SneakyThrows
+    private void assertStatements(long expected, RequestBuilder request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SequenceCallCounter.reset();
+        mockMvc.perform(request).andExpect(status().isOk());
+        long sequenceCalls = SequenceCallCounter.reset();
+        assertTrue(sequenceCalls <= 1, "ids are fetched from the sequence in blocks");
+        assertEquals(expected, statistics.getPrepareStatementCount() - sequenceCalls);
+    }
+}
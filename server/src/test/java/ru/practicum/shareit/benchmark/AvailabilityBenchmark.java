@@ -0,0 +1,73 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.service.BookingIntervalTree;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"10000", "50000"})
+    private int bookingsCount;
+
+    private BookingIntervalTree tree;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<BookingIntervalTree.Interval> intervals = new ArrayList<>();
+        for (long i = 1; i <= bookingsCount; i++) {
+            LocalDateTime bookingStart = start.plusHours(i * 6);
+            intervals.add(new BookingIntervalTree.Interval(i, bookingStart,
+                    bookingStart.plusHours(1 + random.nextInt(12))));
+        }
+        tree = BookingIntervalTree.of(intervals);
+        from = start.plusHours(bookingsCount * 3L);
+        to = from.plusMonths(1);
+    }
+
+    @Benchmark
+    public List<AvailabilitySlotDto> freeSlots() {
+        return tree.freeSlots(from, to);
+    }
+
+    @Benchmark
+    public BookingIntervalTree addBooking() {
+        return tree.with(bookingsCount + 1L, from.plusHours(1), from.plusHours(2));
+    }
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        new Runner(new OptionsBuilder()
+                .include(AvailabilityBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
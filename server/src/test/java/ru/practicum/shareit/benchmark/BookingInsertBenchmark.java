@@ -0,0 +1,134 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ServerApp;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BookingInsertBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.url", "jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1");
+    private static final String USERNAME = System.getProperty("benchmark.username", "test");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "test");
+    private static final int CHUNK_SIZE = 1000;
+
+    @Param({"1", "50"})
+    private int sequenceIncrement;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"100000"})
+    private int bookingsCount;
+
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private User booker;
+    private Item item;
+
+    @Setup(Level.Trial)
+    @SneakyThrows
+    public void setUp() {
+        String driverClassName;
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+             Statement statement = connection.createStatement()) {
+            driverClassName = DriverManager.getDriver(URL).getClass().getName();
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            if (URL.startsWith("jdbc:postgresql")) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgres.sql"));
+            }
+            statement.execute("ALTER SEQUENCE bookings_seq INCREMENT BY " + sequenceIncrement);
+        }
+        context = new SpringApplicationBuilder(ServerApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.url=" + URL,
+                        "spring.datasource.driverClassName=" + driverClassName,
+                        "spring.datasource.username=" + USERNAME,
+                        "spring.datasource.password=" + PASSWORD,
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "logging.level.org.hibernate.SQL=OFF")
+                .run();
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        User owner = context.getBean(UserRepository.class).save(new User(null, "owner", "owner@mail.ru"));
+        booker = context.getBean(UserRepository.class).save(new User(null, "booker", "booker@mail.ru"));
+        item = context.getBean(ItemRepository.class).save(new Item(null, "item", "description", true, owner, null));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearBookings() {
+        jdbcTemplate.execute("DELETE FROM bookings");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insertBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int from = 0; from < bookingsCount; from += CHUNK_SIZE) {
+            List<Booking> bookings = new ArrayList<>();
+            for (int i = from; i < Math.min(from + CHUNK_SIZE, bookingsCount); i++) {
+                bookings.add(new Booking(null, item, booker, start.plusHours(i), start.plusHours(i + 1),
+                        Status.WAITING));
+            }
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(bookings));
+        }
+    }
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        new Runner(new OptionsBuilder()
+                .include(BookingInsertBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
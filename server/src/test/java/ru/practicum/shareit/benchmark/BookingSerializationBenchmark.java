@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.mapper.BookingMapper.toBookingDto;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int bookingsCount;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<EntityBookingDto> entityBookings;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        entityBookings = new ArrayList<>();
+        bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (long i = 1; i <= bookingsCount; i++) {
+            User owner = new User(i, "owner" + i, "owner" + i + "@mail.ru");
+            User booker = new User(i + bookingsCount, "booker" + i, "booker" + i + "@mail.ru");
+            ItemRequest itemRequest = new ItemRequest(i, "request description " + i, booker, now);
+            Item item = new Item(i, "item" + i, "item description " + i, true, owner, itemRequest);
+            Booking booking = new Booking(i, item, booker, now.plusDays(i), now.plusDays(i + 1), Status.APPROVED);
+            entityBookings.add(new EntityBookingDto(booking.getId(), item, booker, booking.getStart(),
+                    booking.getEnd(), booking.getStatus()));
+            bookings.add(toBookingDto(booking));
+        }
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] serializeEntityBookings() {
+        return objectMapper.writeValueAsBytes(entityBookings);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public byte[] serializeBookings() {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @SneakyThrows
+    public static void main(String[] args) {
+        BookingSerializationBenchmark benchmark = new BookingSerializationBenchmark();
+        benchmark.bookingsCount = 100;
+        benchmark.setUp();
+        System.out.printf("Байт на бронирование: с сущностями %d, с компактными DTO %d%n",
+                benchmark.serializeEntityBookings().length / benchmark.bookingsCount,
+                benchmark.serializeBookings().length / benchmark.bookingsCount);
+        new Runner(new OptionsBuilder()
+                .include(BookingSerializationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class EntityBookingDto {
+        private Long id;
+        private Item item;
+        private User booker;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private Status status;
+    }
+}
@@ -11,10 +11,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.InputItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -24,9 +32,12 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -42,6 +53,8 @@ class BookingControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingExporter bookingExporter;
     private BookingInputDto bookingInputDto;
     private BookingDto bookingDto;
     private InputItemDto inputItemDto;
@@ -75,8 +88,8 @@ class BookingControllerTest {
         user = userMapper.toUser(userDto);
         bookingDto = BookingDto.builder()
                 .id(1L)
-                .item(item)
-                .booker(user)
+                .item(new BookingItemDto(item.getId(), item.getName()))
+                .booker(new BookerDto(user.getId()))
                 .start(bookingInputDto.getStart())
                 .end(bookingInputDto.getEnd())
                 .build();
@@ -98,6 +111,21 @@ class BookingControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    void shouldCreateBookingsInBatch() {
+        Mockito.when(bookingService.createAll(anyLong(), anyList())).thenReturn(List.of(bookingDto));
+        mockMvc.perform(post("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(List.of(bookingInputDto)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(userId, 1))
+                .andExpectAll(
+                        status().isOk(),
+                        content().json(objectMapper.writeValueAsString(List.of(bookingDto)))
+                );
+        verify(bookingService).createAll(1L, List.of(bookingInputDto));
+    }
+
     @SneakyThrows
     @Test
     void shouldApproveBooking() {
@@ -114,6 +142,24 @@ class BookingControllerTest {
         bookingDto.setStatus(Status.WAITING);
     }
 
+    @SneakyThrows
+    @Test
+    void shouldApproveBookingsInBatch() {
+        List<BookingApprovalDto> approvals = List.of(new BookingApprovalDto(1L, true), new BookingApprovalDto(2L, false));
+        List<BookingApprovalResult> results = List.of(new BookingApprovalResult(1L, Status.APPROVED, null),
+                new BookingApprovalResult(2L, null, "Статус уже установлен"));
+        Mockito.when(bookingService.approveAll(1L, approvals)).thenReturn(results);
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(userId, 1)
+                        .content(objectMapper.writeValueAsString(approvals))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpectAll(
+                        status().isOk(),
+                        content().json(objectMapper.writeValueAsString(results)),
+                        jsonPath("$[0].error").doesNotExist()
+                );
+    }
+
     @SneakyThrows
     @Test
     void shouldGetById() {
@@ -131,7 +177,7 @@ class BookingControllerTest {
     @Test
     void shouldGetByUser() {
         List<BookingDto> bookings = List.of(bookingDto);
-        Mockito.when(bookingService.getByUser(anyString(), anyLong(), anyInt(), anyInt())).thenReturn(bookings);
+        Mockito.when(bookingService.getByUser(anyString(), anyLong(), anyInt(), anyInt(), any())).thenReturn(bookings);
         mockMvc.perform(get("/bookings")
                         .header(userId, 1)
                         .param("from", "0")
@@ -143,11 +189,36 @@ class BookingControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    void shouldReturnNextCursorForFullPage() {
+        List<BookingDto> bookings = List.of(bookingDto);
+        Mockito.when(bookingService.getByUser(anyString(), anyLong(), anyInt(), anyInt(), any())).thenReturn(bookings);
+        mockMvc.perform(get("/bookings")
+                        .header(userId, 1)
+                        .param("size", "1")
+                        .param("cursor", "cursor"))
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().string("X-Next-Cursor",
+                                new BookingCursor(bookingDto.getStart(), bookingDto.getId()).encode())
+                );
+        mockMvc.perform(get("/bookings")
+                        .header(userId, 1)
+                        .param("size", "2"))
+                .andDo(print())
+                .andExpectAll(
+                        status().isOk(),
+                        header().doesNotExist("X-Next-Cursor")
+                );
+    }
+
     @SneakyThrows
     @Test
     void shouldGetByOwner() {
         List<BookingDto> bookings = List.of(bookingDto);
-        Mockito.when(bookingService.getByOwner(anyString(), anyLong(), anyInt(), anyInt())).thenReturn(bookings);
+        Mockito.when(bookingService.getByOwner(anyString(), anyLong(), anyInt(), anyInt(), any())).thenReturn(bookings);
         mockMvc.perform(get("/bookings/owner")
                         .header(userId, 1)
                         .param("from", "0")
@@ -159,4 +230,35 @@ class BookingControllerTest {
                 );
     }
 
-}
\ No newline at end of file
+    @Test
+    @SneakyThrows
+    void shouldExportByOwner() {
+        String line = objectMapper.writeValueAsString(bookingDto) + "\n";
+        Mockito.when(bookingExporter.exportByOwner(1L, ExportFormat.NDJSON))
+                .thenReturn(output -> output.write(line.getBytes(StandardCharsets.UTF_8)));
+        Mockito.when(bookingExporter.getTimeout()).thenReturn(Duration.ofMinutes(5));
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(userId, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(5).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_NDJSON),
+                        content().string(line)
+                );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotExportByOwnerWithUnknownFormat() {
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(userId, 1)
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Неизвестный формат выгрузки: xml"));
+        verifyNoInteractions(bookingExporter);
+    }
+
+}
@@ -7,8 +7,6 @@ import org.springframework.boot.test.autoconfigure.json.JsonTest;
 import org.springframework.boot.test.json.JacksonTester;
 import org.springframework.boot.test.json.JsonContent;
 import ru.practicum.shareit.booking.model.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -33,20 +31,10 @@ class BookingDtoTest {
     @SneakyThrows
     @Test
     void testBookingDto() {
-        Item item = Item.builder()
-                .id(1L)
-                .name("itemname")
-                .description("description")
-                .build();
-        User user = User.builder()
-                .id(1L)
-                .name("username")
-                .email("user@mail.ru")
-                .build();
         BookingDto bookingDto = BookingDto.builder()
                 .id(1L)
-                .item(item)
-                .booker(user)
+                .item(new BookingItemDto(1L, "itemname"))
+                .booker(new BookerDto(1L))
                 .start(LocalDateTime.of(2025, 1, 1, 0, 0, 0))
                 .end(LocalDateTime.of(2025, 1, 2, 0, 0, 0))
                 .status(Status.WAITING)
@@ -56,7 +44,8 @@ class BookingDtoTest {
         assertThat(result).extractingJsonPathNumberValue("$.item.id").isEqualTo(bookingDto.getItem().getId().intValue());
         assertThat(result).extractingJsonPathStringValue("$.item.name").isEqualTo(bookingDto.getItem().getName());
         assertThat(result).extractingJsonPathNumberValue("$.booker.id").isEqualTo(bookingDto.getBooker().getId().intValue());
-        assertThat(result).extractingJsonPathStringValue("$.booker.name").isEqualTo(bookingDto.getBooker().getName());
+        assertThat(result).doesNotHaveJsonPath("$.item.owner");
+        assertThat(result).doesNotHaveJsonPath("$.booker.name");
         assertThat(result).extractingJsonPathStringValue("$.start").isEqualTo(bookingDto.getStart().format(formatter));
         assertThat(result).extractingJsonPathStringValue("$.end").isEqualTo(bookingDto.getEnd().format(formatter));
         assertThat(result).extractingJsonPathStringValue("$.status").isEqualTo(bookingDto.getStatus().toString());
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+public class ApprovedBookingOverlapTrigger implements Trigger {
+
+    private static final int ID = 0;
+    private static final int ITEM_ID = 1;
+    private static final int START = 3;
+    private static final int END = 4;
+    private static final int STATUS = 5;
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (newRow == null || !"APPROVED".equals(newRow[STATUS])) {
+            return;
+        }
+        try (PreparedStatement lock = conn.prepareStatement("SELECT id FROM items WHERE id = ? FOR UPDATE")) {
+            lock.setObject(1, newRow[ITEM_ID]);
+            lock.executeQuery().close();
+        }
+        try (PreparedStatement overlap = conn.prepareStatement("SELECT COUNT(*) FROM bookings " +
+                "WHERE item_id = ? AND status = 'APPROVED' AND id <> ? AND start_booking < ? AND end_booking > ?")) {
+            overlap.setObject(1, newRow[ITEM_ID]);
+            overlap.setObject(2, newRow[ID]);
+            overlap.setObject(3, newRow[END]);
+            overlap.setObject(4, newRow[START]);
+            try (ResultSet resultSet = overlap.executeQuery()) {
+                if (resultSet.next() && resultSet.getLong(1) > 0) {
+                    throw new SQLException("conflicting key value violates exclusion constraint " +
+                            "\"ex_bookings_item_approved_overlap\"", "23P01");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.ExecutedQueries.ExecutedQuery;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+@Transactional
+@Import(ExecutedQueries.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
+class BookingRepositoryIndexTest {
+
+    private static final int USERS = 100;
+    private static final int ITEMS_PER_USER = 10;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ExecutedQueries executedQueries;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "user" + userId, "user" + userId + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        List<Object[]> items = new ArrayList<>();
+        for (long itemId = 1; itemId <= USERS * ITEMS_PER_USER; itemId++) {
+            items.add(new Object[]{itemId, "item" + itemId, "description" + itemId, (itemId - 1) / ITEMS_PER_USER + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, user_id) " +
+                "VALUES (?, ?, ?, TRUE, ?)", items);
+        List<Object[]> bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= USERS * ITEMS_PER_USER; itemId++) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = now.plusDays(i - BOOKINGS_PER_ITEM / 2);
+                bookings.add(new Object[]{bookingId, itemId, (itemId + i) % USERS + 1, Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusHours(1)), STATUSES[(int) (bookingId % STATUSES.length)]});
+                bookingId++;
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, item_id, booker_id, start_booking, end_booking, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> rolesAndStates() {
+        return Stream.of(BookingRole.values())
+                .flatMap(role -> Stream.of(State.values()).map(state -> Arguments.of(role, state)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rolesAndStates")
+    void shouldFindBookingsByRoleAndStateWithoutTableScan(BookingRole role, State state) {
+        assertNoTableScan(() -> bookingRepository.findDtos(BookingQuery.builder()
+                .role(role)
+                .userId(7L)
+                .state(state)
+                .now(LocalDateTime.now())
+                .size(10)
+                .build()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingRole.class)
+    void shouldFindBookingsAfterCursorWithoutTableScan(BookingRole role) {
+        assertNoTableScan(() -> bookingRepository.findDtos(BookingQuery.builder()
+                .role(role)
+                .userId(7L)
+                .state(State.ALL)
+                .now(LocalDateTime.now())
+                .cursor(new BookingCursor(LocalDateTime.now(), 500L))
+                .size(10)
+                .build()));
+    }
+
+    @Test
+    void shouldFindLastAndNextBookingsWithoutTableScan() {
+        assertNoTableScan(() -> bookingRepository.findLastAndNextApprovedByItemIds(List.of(70L, 71L),
+                LocalDateTime.now()));
+    }
+
+    @Test
+    void shouldFindFinishedBookingsOfItemWithoutTableScan() {
+        assertNoTableScan(() -> bookingRepository.findAllByBookerIdAndItemIdAndStatusEqualsAndEndIsBefore(7L, 70L,
+                Status.APPROVED, LocalDateTime.now()));
+    }
+
+    @Test
+    void shouldFindItemsByOwnerWithoutTableScan() {
+        assertNoTableScan(() -> itemRepository.findAllByOwnerIdOrderById(7L, PageRequest.of(0, 10)));
+    }
+
+    private void assertNoTableScan(Runnable repositoryCall) {
+        List<ExecutedQuery> queries = executedQueries.record(repositoryCall);
+        assertFalse(queries.isEmpty());
+        String marker = sequentialScanMarker();
+        for (ExecutedQuery query : queries) {
+            String plan = String.join("\n", jdbcTemplate.query("EXPLAIN " + query.getSql(), query::bind,
+                    (rs, rowNum) -> rs.getString(1)));
+            assertFalse(plan.contains(marker), "Запрос выполняется полным сканированием таблицы:\n" + plan);
+        }
+    }
+
+    private String sequentialScanMarker() {
+        String database = Objects.requireNonNull(jdbcTemplate.execute(
+                (Connection connection) -> connection.getMetaData().getDatabaseProductName()));
+        return database.equals("PostgreSQL") ? "Seq Scan" : "tableScan";
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class ExecutedQueries implements BeanPostProcessor {
+
+    private final List<ExecutedQuery> queries = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource) {
+            return proxy(DataSource.class, bean, (method, args, result) ->
+                    result instanceof Connection ? proxy(Connection.class, result, this::onConnectionCall) : result);
+        }
+        return bean;
+    }
+
+    public List<ExecutedQuery> record(Runnable action) {
+        queries.clear();
+        action.run();
+        List<ExecutedQuery> executed = new ArrayList<>(queries);
+        queries.clear();
+        return executed;
+    }
+
+    private Object onConnectionCall(Method method, Object[] args, Object result) {
+        if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement) {
+            return recordingStatement((String) args[0], (PreparedStatement) result);
+        }
+        return result;
+    }
+
+    private PreparedStatement recordingStatement(String sql, PreparedStatement statement) {
+        List<ParameterCall> parameters = new ArrayList<>();
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        parameters.add(new ParameterCall(method, args));
+                    } else if (method.getName().equals("clearParameters")) {
+                        parameters.clear();
+                    } else if (method.getName().equals("executeQuery") && args == null) {
+                        queries.add(new ExecutedQuery(sql, List.copyOf(parameters)));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, ResultHandler resultHandler) {
+        return (T) Proxy.newProxyInstance(ExecutedQueries.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> method.getName().equals("equals") ? proxy == args[0]
+                        : resultHandler.handle(method, args, invoke(target, method, args)));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface ResultHandler {
+
+        Object handle(Method method, Object[] args, Object result);
+    }
+
+    @RequiredArgsConstructor
+    private static class ParameterCall {
+
+        private final Method method;
+        private final Object[] args;
+    }
+
+    @RequiredArgsConstructor
+    public static class ExecutedQuery {
+
+        @Getter
+        private final String sql;
+        private final List<ParameterCall> parameters;
+
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterCall parameter : parameters) {
+                try {
+                    parameter.method.invoke(statement, parameter.args);
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
+class BookingApprovalConcurrencyTest {
+
+    private static final int BOOKINGS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void shouldApproveOnlyOneOfOverlappingBookingsApprovedInParallel() throws Exception {
+        UserDto owner = userService.create(new UserDto(null, "owner", "owner@mail.ru"));
+        UserDto booker = userService.create(new UserDto(null, "booker", "booker@mail.ru"));
+        ItemDto item = itemService.create(InputItemDto.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .build(), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(booker.getId(), BookingInputDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + BOOKINGS))
+                    .build()).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(BOOKINGS);
+        CountDownLatch ready = new CountDownLatch(BOOKINGS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<BookingDto>> approvals = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            approvals.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return bookingService.approve(owner.getId(), bookingId, true);
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        int approved = 0;
+        int conflicts = 0;
+        for (Future<BookingDto> approval : approvals) {
+            try {
+                assertEquals(Status.APPROVED, approval.get(30, TimeUnit.SECONDS).getStatus());
+                approved++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ConflictException.class, e.getCause());
+                conflicts++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, approved);
+        assertEquals(BOOKINGS - 1, conflicts);
+        assertEquals(1, bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .count());
+    }
+}
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.model.ExportFormat;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exceptions.BadRequestException;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.InputItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -18,7 +25,11 @@ import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 
@@ -28,12 +39,14 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
 class BookingServiceImplTest {
 
     private final BookingServiceImpl bookingService;
     private final UserServiceImpl userService;
     private final ItemServiceImpl itemService;
+    private final BookingExporter bookingExporter;
+    private final ObjectMapper objectMapper;
 
     private BookingInputDto bookingInputDto;
     private UserDto userDto;
@@ -77,8 +90,8 @@ class BookingServiceImplTest {
         bookingInputDto = BookingInputDto.builder()
                 .id(1L)
                 .itemId(createdItem.getId())
-                .start(LocalDateTime.now().plusDays(1))
-                .end(LocalDateTime.now().plusDays(2))
+                .start(LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.MICROS))
                 .build();
         bookingDto = bookingService.create(createdUser2.getId(), bookingInputDto);
     }
@@ -100,6 +113,58 @@ class BookingServiceImplTest {
 
     }
 
+    @Test
+    void shouldCreateAll() {
+        ItemDto createdItem3 = itemService.create(inputItemDto2, createdUser2.getId());
+        List<BookingDto> bookings = bookingService.createAll(createdUser.getId(), List.of(
+                BookingInputDto.builder()
+                        .id(1L)
+                        .itemId(createdItem2.getId())
+                        .start(bookingInputDto.getStart())
+                        .end(bookingInputDto.getEnd())
+                        .build(),
+                BookingInputDto.builder()
+                        .itemId(createdItem3.getId())
+                        .start(bookingInputDto.getStart())
+                        .end(bookingInputDto.getEnd())
+                        .build()));
+        assertEquals(2, bookings.size());
+        assertNotEquals(bookingDto.getId(), bookings.get(0).getId());
+        assertEquals(createdItem2.getId(), bookings.get(0).getItem().getId());
+        assertEquals(createdItem3.getId(), bookings.get(1).getItem().getId());
+        assertEquals(Status.WAITING, bookings.get(1).getStatus());
+        assertEquals(createdUser.getId(), bookings.get(1).getBooker().getId());
+        assertEquals(2, bookingService.getByUser("ALL", createdUser.getId(), 0, 10, null).size());
+    }
+
+    @Test
+    void shouldNotCreateAllIfAnyBookingIsIncorrect() {
+        BookingInputDto correct = BookingInputDto.builder()
+                .itemId(createdItem2.getId())
+                .start(bookingInputDto.getStart())
+                .end(bookingInputDto.getEnd())
+                .build();
+        assertThatThrownBy(() -> bookingService.createAll(createdUser.getId(), List.of(correct,
+                BookingInputDto.builder()
+                        .itemId(createdItem2.getId())
+                        .start(bookingInputDto.getEnd())
+                        .end(bookingInputDto.getStart())
+                        .build())))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> bookingService.createAll(createdUser.getId(), List.of(correct,
+                BookingInputDto.builder()
+                        .itemId(99L)
+                        .start(bookingInputDto.getStart())
+                        .end(bookingInputDto.getEnd())
+                        .build())))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> bookingService.createAll(createdUser2.getId(), List.of(correct)))
+                .isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> bookingService.createAll(createdUser.getId(), List.of()))
+                .isInstanceOf(BadRequestException.class);
+        assertTrue(bookingService.getByUser("ALL", createdUser.getId(), 0, 10, null).isEmpty());
+    }
+
     @Test
     void shouldNotCreateBookingWithUncorrectedItem() {
         BookingInputDto bookingInputDto2 = BookingInputDto.builder()
@@ -156,6 +221,29 @@ class BookingServiceImplTest {
         assertEquals(bookingDto2.getStatus(), Status.APPROVED);
     }
 
+    @Test
+    void shouldNotApproveOverlappingBooking() {
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), true);
+        BookingDto overlapping = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(bookingInputDto.getStart().plusHours(12))
+                .end(bookingInputDto.getEnd().plusHours(12))
+                .build());
+        assertThatThrownBy(() -> bookingService.approve(createdUser.getId(), overlapping.getId(), true))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void shouldApproveAdjacentBooking() {
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), true);
+        BookingDto adjacent = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(bookingInputDto.getEnd())
+                .end(bookingInputDto.getEnd().plusDays(1))
+                .build());
+        assertEquals(Status.APPROVED, bookingService.approve(createdUser.getId(), adjacent.getId(), true).getStatus());
+    }
+
     @Test
     void shouldNotApprove() {
         BookingDto bookingDto2 = bookingService.approve(createdUser.getId(), bookingDto.getId(), false);
@@ -178,6 +266,78 @@ class BookingServiceImplTest {
         assertThatThrownBy(() -> bookingService.approve(createdUser.getId(), bookingDto.getId(), true)).isInstanceOf(BadRequestException.class);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRestoreAvailabilityWhenRejectedBookingIsApproved() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(3);
+        assertEquals(2, itemService.getAvailability(createdItem.getId(), createdUser2.getId(), from, to).size());
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), false);
+        assertEquals(1, itemService.getAvailability(createdItem.getId(), createdUser2.getId(), from, to).size());
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), true);
+        assertEquals(2, itemService.getAvailability(createdItem.getId(), createdUser2.getId(), from, to).size());
+    }
+
+    @Test
+    void shouldApproveAll() {
+        BookingDto overlapping = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(bookingInputDto.getStart().plusHours(12))
+                .end(bookingInputDto.getEnd().plusHours(12))
+                .build());
+        BookingDto later = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(bookingInputDto.getEnd().plusDays(1))
+                .end(bookingInputDto.getEnd().plusDays(2))
+                .build());
+        List<BookingApprovalResult> results = bookingService.approveAll(createdUser.getId(), List.of(
+                new BookingApprovalDto(bookingDto.getId(), true),
+                new BookingApprovalDto(overlapping.getId(), true),
+                new BookingApprovalDto(later.getId(), false),
+                new BookingApprovalDto(99L, true),
+                new BookingApprovalDto(bookingDto.getId(), false)));
+        assertEquals(5, results.size());
+        assertEquals(new BookingApprovalResult(bookingDto.getId(), Status.APPROVED, null), results.get(0));
+        assertNotNull(results.get(1).getError());
+        assertEquals(new BookingApprovalResult(later.getId(), Status.REJECTED, null), results.get(2));
+        assertNotNull(results.get(3).getError());
+        assertNotNull(results.get(4).getError());
+        assertEquals(Status.APPROVED, bookingService.getById(createdUser.getId(), bookingDto.getId()).getStatus());
+        assertEquals(Status.WAITING, bookingService.getById(createdUser.getId(), overlapping.getId()).getStatus());
+        assertEquals(Status.REJECTED, bookingService.getById(createdUser.getId(), later.getId()).getStatus());
+    }
+
+    @Test
+    void shouldNotApproveAllOverlappingApprovedOrForeignBookings() {
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), true);
+        BookingDto overlapping = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(bookingInputDto.getStart().plusHours(12))
+                .end(bookingInputDto.getEnd().plusHours(12))
+                .build());
+        List<BookingApprovalResult> results = bookingService.approveAll(createdUser.getId(), List.of(
+                new BookingApprovalDto(overlapping.getId(), true),
+                new BookingApprovalDto(bookingDto.getId(), false)));
+        assertNull(results.get(0).getStatus());
+        assertNull(results.get(1).getStatus());
+        assertNotNull(results.get(1).getError());
+        assertNull(bookingService.approveAll(createdUser2.getId(), List.of(
+                new BookingApprovalDto(overlapping.getId(), false))).get(0).getStatus());
+        assertEquals(Status.WAITING, bookingService.getById(createdUser.getId(), overlapping.getId()).getStatus());
+        assertThatThrownBy(() -> bookingService.approveAll(99L, List.of())).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRestoreAvailabilityWhenRejectedBookingIsApprovedInBatch() {
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(3);
+        bookingService.approve(createdUser.getId(), bookingDto.getId(), false);
+        assertEquals(1, itemService.getAvailability(createdItem.getId(), createdUser2.getId(), from, to).size());
+        bookingService.approveAll(createdUser.getId(), List.of(new BookingApprovalDto(bookingDto.getId(), true)));
+        assertEquals(2, itemService.getAvailability(createdItem.getId(), createdUser2.getId(), from, to).size());
+    }
+
     @Test
     void shouldGetById() {
         BookingDto bookingDto2 = bookingService.getById(createdUser.getId(), bookingDto.getId());
@@ -206,84 +366,172 @@ class BookingServiceImplTest {
 
     @Test
     void shouldGetByBookerAll() {
-        Collection<BookingDto> bookings = bookingService.getByUser("ALL", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("ALL", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of(bookingDto));
     }
 
     @Test
     void shouldGetByBookerCurrent() {
-        Collection<BookingDto> bookings = bookingService.getByUser("CURRENT", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("CURRENT", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByBookerPast() {
-        Collection<BookingDto> bookings = bookingService.getByUser("PAST", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("PAST", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByBookerFuture() {
-        Collection<BookingDto> bookings = bookingService.getByUser("FUTURE", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("FUTURE", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of(bookingDto));
     }
 
     @Test
     void shouldGetByBookerWaiting() {
-        Collection<BookingDto> bookings = bookingService.getByUser("WAITING", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("WAITING", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of(bookingDto));
     }
 
     @Test
     void shouldGetByBookerRejected() {
-        Collection<BookingDto> bookings = bookingService.getByUser("REJECTED", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByUser("REJECTED", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByBookerUnsupportedState() {
-        assertThatThrownBy(() -> bookingService.getByUser("SOMETHING", createdUser2.getId(), 0, 1)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> bookingService.getByUser("SOMETHING", createdUser2.getId(), 0, 1, null)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldGetByBookerAfterCursor() {
+        BookingDto later = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.MICROS))
+                .build());
+        BookingDto latest = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(6).truncatedTo(ChronoUnit.MICROS))
+                .build());
+        List<BookingDto> firstPage = (List<BookingDto>) bookingService.getByUser("ALL", createdUser2.getId(), 0, 1, null);
+        assertEquals(firstPage, List.of(latest));
+        String cursor = new BookingCursor(latest.getStart(), latest.getId()).encode();
+        Collection<BookingDto> secondPage = bookingService.getByUser("ALL", createdUser2.getId(), 0, 1, cursor);
+        assertEquals(secondPage, List.of(later));
+        cursor = new BookingCursor(later.getStart(), later.getId()).encode();
+        Collection<BookingDto> lastPage = bookingService.getByUser("FUTURE", createdUser2.getId(), 0, 5, cursor);
+        assertEquals(lastPage, List.of(bookingDto));
+    }
+
+    @Test
+    void shouldGetByBookerFromUnalignedOffset() {
+        BookingDto later = bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.MICROS))
+                .build());
+        bookingService.create(createdUser2.getId(), BookingInputDto.builder()
+                .itemId(createdItem.getId())
+                .start(LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(6).truncatedTo(ChronoUnit.MICROS))
+                .build());
+        Collection<BookingDto> bookings = bookingService.getByUser("ALL", createdUser2.getId(), 1, 2, null);
+        assertEquals(bookings, List.of(later, bookingDto));
+    }
+
+    @Test
+    void shouldGetByOwnerAfterCursor() {
+        BookingDto booking = bookingService.create(createdUser.getId(), BookingInputDto.builder()
+                .itemId(createdItem2.getId())
+                .start(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MICROS))
+                .end(LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.MICROS))
+                .build());
+        String cursor = new BookingCursor(booking.getStart(), booking.getId() + 1).encode();
+        Collection<BookingDto> bookings = bookingService.getByOwner("WAITING", createdUser2.getId(), 0, 1, cursor);
+        assertEquals(bookings, List.of(booking));
+        cursor = new BookingCursor(booking.getStart(), booking.getId()).encode();
+        bookings = bookingService.getByOwner("WAITING", createdUser2.getId(), 0, 1, cursor);
+        assertEquals(bookings, List.of());
+    }
+
+    @Test
+    void shouldNotGetByUncorrectedCursor() {
+        assertThatThrownBy(() -> bookingService.getByUser("ALL", createdUser2.getId(), 0, 1, "cursor")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> bookingService.getByOwner("SOMETHING", createdUser.getId(), 0, 1,
+                new BookingCursor(LocalDateTime.now(), 1L).encode())).isInstanceOf(BadRequestException.class);
     }
 
     @Test
     void shouldGetByOwner() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("ALL", createdUser.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("ALL", createdUser.getId(), 0, 1, null);
         assertEquals(bookings, List.of(bookingDto));
     }
 
     @Test
     void shouldGetByOwnerCurrent() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("CURRENT", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("CURRENT", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByOwnerPast() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("PAST", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("PAST", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByOwnerFuture() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("FUTURE", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("FUTURE", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByOwnerWaiting() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("WAITING", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("WAITING", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByOwnerRejected() {
-        Collection<BookingDto> bookings = bookingService.getByOwner("REJECTED", createdUser2.getId(), 0, 1);
+        Collection<BookingDto> bookings = bookingService.getByOwner("REJECTED", createdUser2.getId(), 0, 1, null);
         assertEquals(bookings, List.of());
     }
 
     @Test
     void shouldGetByOwnerUnsupportedState() {
-        assertThatThrownBy(() -> bookingService.getByOwner("SOMETHING", createdUser2.getId(), 0, 1)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> bookingService.getByOwner("SOMETHING", createdUser2.getId(), 0, 1, null)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void shouldExportByOwnerAsNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExporter.exportByOwner(createdUser.getId(), ExportFormat.NDJSON).writeTo(output);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        BookingDto exported = objectMapper.readValue(lines[0], BookingDto.class);
+        assertEquals(bookingDto, exported);
+    }
+
+    @Test
+    void shouldExportByOwnerAsCsv() throws Exception {
+        itemService.update(createdItem.getId(), InputItemDto.builder().name("item, \"quoted\"").build(),
+                createdUser.getId());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookingExporter.exportByOwner(createdUser.getId(), ExportFormat.CSV).writeTo(output);
+        assertEquals("id,start,end,status,itemId,itemName,bookerId\n"
+                + bookingDto.getId() + "," + bookingDto.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + ","
+                + bookingDto.getEnd().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + ",WAITING,"
+                + createdItem.getId() + ",\"item, \"\"quoted\"\"\"," + createdUser2.getId() + "\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldNotExportByUncorrectedOwner() {
+        assertThatThrownBy(() -> bookingExporter.exportByOwner(99L, ExportFormat.NDJSON)).isInstanceOf(NotFoundException.class);
     }
 
-}
\ No newline at end of file
+}
@@ -24,4 +24,12 @@ class ErrorHandlerTest {
         assertEquals(response.getError(), message);
     }
 
+    @Test
+    void testConflictException() {
+        String message = "Конфликт";
+        ConflictException exception = new ConflictException(message);
+        ErrorResponse response = errorHandler.handleConflictException(exception);
+        assertEquals(response.getError(), message);
+    }
+
 }
\ No newline at end of file
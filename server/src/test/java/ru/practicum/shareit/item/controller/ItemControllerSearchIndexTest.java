@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.InputItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit.search.engine=index")
+@AutoConfigureMockMvc
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
+class ItemControllerSearchIndexTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    private UserDto owner;
+    private ItemDto drill;
+    private ItemDto hammer;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex.rebuild();
+        owner = userService.create(new UserDto(null, "owner", "owner@mail.ru"));
+        drill = itemService.create(item("Дрель", "Аккумуляторная дрель", true), owner.getId());
+        itemService.create(item("Пила", "Дисковая пила", false), owner.getId());
+        hammer = itemService.create(item("Молоток", "Молоток с дрелью в комплекте", true), owner.getId());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFindAvailableItemsByNameOrDescription() {
+        mockMvc.perform(get("/items/search").param("text", "ДРЕЛ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Дрель", "Молоток")));
+        mockMvc.perform(get("/items/search").param("text", "пила"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFindPage() {
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрел")
+                        .param("from", "1")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(hammer.getId().intValue())));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFindUpdatedItem() {
+        mockMvc.perform(patch("/items/" + drill.getId())
+                        .header(USER_ID_HEADER, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Шуруповерт\", \"description\": \"Аккумуляторный шуруповерт\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/items/search").param("text", "шуруп"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Шуруповерт")));
+        mockMvc.perform(get("/items/search").param("text", "дрел"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Молоток")));
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldNotFindItemsOfDeletedOwner() {
+        userService.delete(owner.getId());
+        mockMvc.perform(get("/items/search").param("text", "дрел"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", empty()));
+    }
+
+    private InputItemDto item(String name, String description, boolean available) {
+        return InputItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -12,11 +12,16 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.InputItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -35,6 +40,8 @@ class ItemControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ItemServiceImpl itemService;
+    @MockBean
+    private ItemImporter itemImporter;
 
     private InputItemDto inputItemDto;
     private ItemDto itemDto;
@@ -107,6 +114,36 @@ class ItemControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    void shouldGetByIdWithEtag() {
+        Mockito.when(itemService.getItemEtag(1L, 1L)).thenReturn("\"v1-item-1-3\"");
+        Mockito.when(itemService.getById(anyLong(), anyLong())).thenReturn(itemDto);
+        mockMvc.perform(get("/items/1")
+                        .header(userId, 1)
+                )
+                .andExpectAll(
+                        status().isOk(),
+                        header().string("ETag", "\"v1-item-1-3\""),
+                        content().json(objectMapper.writeValueAsString(itemDto))
+                );
+    }
+
+    @SneakyThrows
+    @Test
+    void shouldNotGetByIdWhenEtagMatches() {
+        Mockito.when(itemService.getItemEtag(1L, 1L)).thenReturn("\"v1-item-1-3\"");
+        mockMvc.perform(get("/items/1")
+                        .header(userId, 1)
+                        .header("If-None-Match", "\"v1-item-1-3\"")
+                )
+                .andExpectAll(
+                        status().isNotModified(),
+                        content().string("")
+                );
+        verify(itemService, never()).getById(anyLong(), anyLong());
+    }
+
     @SneakyThrows
     @Test
     void shouldGetItemsByOwner() {
@@ -122,6 +159,21 @@ class ItemControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    void shouldImportItems() {
+        String body = "{\"name\": \"itemname\", \"description\": \"description\", \"available\": true}\n";
+        mockMvc.perform(post("/items/bulk")
+                        .content(body)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(userId, 1))
+                .andExpectAll(
+                        status().isOk(),
+                        content().contentType(MediaType.APPLICATION_NDJSON)
+                );
+        verify(itemImporter).importItems(eq(1L), any(InputStream.class), any(OutputStream.class));
+    }
+
     @SneakyThrows
     @Test
     void shouldFindItem() {
@@ -138,6 +190,25 @@ class ItemControllerTest {
                 );
     }
 
+    @SneakyThrows
+    @Test
+    void shouldGetAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        List<AvailabilitySlotDto> slots = List.of(new AvailabilitySlotDto(from, from.plusDays(2)),
+                new AvailabilitySlotDto(from.plusDays(5), to));
+        Mockito.when(itemService.getAvailability(1L, 1L, from, to)).thenReturn(slots);
+        mockMvc.perform(get("/items/1/availability")
+                        .header(userId, 1)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00")
+                )
+                .andExpectAll(
+                        status().isOk(),
+                        content().json(objectMapper.writeValueAsString(slots))
+                );
+    }
+
     @SneakyThrows
     @Test
     void shouldPostComment() {
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalTreeTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void shouldReturnWholePeriodWithoutBookings() {
+        assertEquals(List.of(slot(0, 30)), BookingIntervalTree.empty().freeSlots(day(0), day(30)));
+    }
+
+    @Test
+    void shouldMergeOverlappingBookings() {
+        BookingIntervalTree tree = BookingIntervalTree.of(List.of(
+                new BookingIntervalTree.Interval(1L, day(2), day(5)),
+                new BookingIntervalTree.Interval(2L, day(4), day(7)),
+                new BookingIntervalTree.Interval(3L, day(10), day(12)),
+                new BookingIntervalTree.Interval(4L, day(12), day(13)),
+                new BookingIntervalTree.Interval(5L, day(40), day(41))));
+        assertEquals(List.of(slot(0, 2), slot(7, 10), slot(13, 30)), tree.freeSlots(day(0), day(30)));
+        assertEquals(List.of(slot(7, 8)), tree.freeSlots(day(3), day(8)));
+        assertEquals(List.of(), tree.freeSlots(day(10), day(13)));
+    }
+
+    @Test
+    void shouldAddAndRemoveBookings() {
+        BookingIntervalTree tree = BookingIntervalTree.empty()
+                .with(1L, day(5), day(6))
+                .with(2L, day(1), day(2));
+        assertEquals(List.of(slot(0, 1), slot(2, 5), slot(6, 10)), tree.freeSlots(day(0), day(10)));
+        tree = tree.without(1L);
+        assertEquals(1, tree.size());
+        assertEquals(List.of(slot(0, 1), slot(2, 10)), tree.freeSlots(day(0), day(10)));
+        assertSame(tree, tree.without(3L));
+    }
+
+    @Test
+    void shouldMatchLinearScanOnManyBookings() {
+        Random random = new Random(42);
+        List<BookingIntervalTree.Interval> intervals = new ArrayList<>();
+        List<long[]> hours = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            long from = random.nextInt(24 * 365 * 10);
+            long to = from + 1 + random.nextInt(24 * 7);
+            intervals.add(new BookingIntervalTree.Interval(id, start.plusHours(from), start.plusHours(to)));
+            hours.add(new long[]{from, to});
+        }
+        BookingIntervalTree tree = BookingIntervalTree.of(intervals);
+        for (int i = 0; i < 200; i++) {
+            long from = random.nextInt(24 * 365 * 10);
+            long to = from + 1 + random.nextInt(24 * 60);
+            assertEquals(linearScan(hours, from, to), tree.freeSlots(start.plusHours(from), start.plusHours(to)));
+        }
+    }
+
+    private List<AvailabilitySlotDto> linearScan(List<long[]> hours, long from, long to) {
+        boolean[] busy = new boolean[(int) (to - from)];
+        for (long[] interval : hours) {
+            for (long hour = Math.max(from, interval[0]); hour < Math.min(to, interval[1]); hour++) {
+                busy[(int) (hour - from)] = true;
+            }
+        }
+        List<AvailabilitySlotDto> slots = new ArrayList<>();
+        for (int hour = 0; hour < busy.length; hour++) {
+            if (!busy[hour]) {
+                int end = hour;
+                while (end < busy.length && !busy[end]) {
+                    end++;
+                }
+                slots.add(new AvailabilitySlotDto(start.plusHours(from + hour), start.plusHours(from + end)));
+                hour = end;
+            }
+        }
+        return slots;
+    }
+
+    private LocalDateTime day(int day) {
+        return start.plusDays(day);
+    }
+
+    private AvailabilitySlotDto slot(int from, int to) {
+        return new AvailabilitySlotDto(day(from), day(to));
+    }
+}
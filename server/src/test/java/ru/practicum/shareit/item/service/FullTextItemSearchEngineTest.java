@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FullTextItemSearchEngineTest {
+
+    @Test
+    void shouldJoinWordsAsPrefixTerms() {
+        assertEquals("аккумуляторная:* & дрель:* & 2000:*",
+                FullTextItemSearchEngine.toPrefixQuery("Аккумуляторная  ДРЕЛЬ\t2000"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"дрель&пила", "дрель|пила", "дрель!пила", "дрель:пила", "(дрель)(пила)",
+            "дрель'пила", "дрель\\пила", "!дрель:* & (пила | 'x')"})
+    void shouldStripQueryOperators(String text) {
+        String query = FullTextItemSearchEngine.toPrefixQuery(text);
+        assertTrue(query.startsWith("дрель:* & пила:*"), query);
+        assertTrue(query.replace(":*", "").replace(" & ", " ").matches("[\\p{L}\\p{N} ]+"), query);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "\t\n", "&|!:()'\\", " & ! "})
+    void shouldReturnEmptyQueryWithoutWords(String text) {
+        assertEquals("", FullTextItemSearchEngine.toPrefixQuery(text));
+    }
+
+    @Test
+    void shouldNotQueryRepositoryWithoutWords() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        FullTextItemSearchEngine searchEngine = new FullTextItemSearchEngine(itemRepository);
+        assertTrue(searchEngine.search(" ()' ", 0, 10).isEmpty());
+        verify(itemRepository, never()).searchRankedByFullText(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldPassPrefixQueryToRepository() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        new FullTextItemSearchEngine(itemRepository).search("Дрель:* | пила", 20, 10);
+        verify(itemRepository).searchRankedByFullText("дрель:* & пила:*", 20, 10);
+    }
+}
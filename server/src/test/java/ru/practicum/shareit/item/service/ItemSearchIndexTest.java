@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex(null);
+        itemSearchIndex.index(item(1L, "Дрель", "Аккумуляторная дрель", true));
+        itemSearchIndex.index(item(2L, "Отвертка", "Крестовая отвертка", true));
+        itemSearchIndex.index(item(3L, "Пила", "Дисковая пила для дерева", false));
+        itemSearchIndex.index(item(4L, "Молоток", "Молоток с дрелью в комплекте", true));
+    }
+
+    @Test
+    void shouldFindByNameAndDescriptionIgnoringCase() {
+        assertEquals(List.of(1L, 4L), itemSearchIndex.searchIds("ДРЕЛ", 0, 10));
+        assertEquals(List.of(2L), itemSearchIndex.searchIds("крест", 0, 10));
+    }
+
+    @Test
+    void shouldNotFindUnavailableItems() {
+        assertEquals(List.of(), itemSearchIndex.searchIds("пила", 0, 10));
+    }
+
+    @Test
+    void shouldNotFindTextAbsentInItems() {
+        assertEquals(List.of(), itemSearchIndex.searchIds("рубанок", 0, 10));
+        assertEquals(List.of(), itemSearchIndex.searchIds("дрелька", 0, 10));
+    }
+
+    @Test
+    void shouldFindByShortText() {
+        assertEquals(List.of(1L, 4L), itemSearchIndex.searchIds("др", 0, 10));
+    }
+
+    @Test
+    void shouldFindPage() {
+        assertEquals(List.of(4L), itemSearchIndex.searchIds("дрел", 1, 1));
+    }
+
+    @Test
+    void shouldReindexUpdatedItem() {
+        itemSearchIndex.index(item(1L, "Шуруповерт", "Аккумуляторный шуруповерт", true));
+        itemSearchIndex.index(item(3L, "Пила", "Дисковая пила для дерева", true));
+        assertEquals(List.of(4L), itemSearchIndex.searchIds("дрел", 0, 10));
+        assertEquals(List.of(1L), itemSearchIndex.searchIds("шуруп", 0, 10));
+        assertEquals(List.of(3L), itemSearchIndex.searchIds("пила", 0, 10));
+    }
+
+    @Test
+    void shouldNotFindRemovedItems() {
+        itemSearchIndex.remove(List.of(1L));
+        assertEquals(List.of(4L), itemSearchIndex.searchIds("дрел", 0, 10));
+        assertEquals(List.of(), itemSearchIndex.searchIds("дрел", 1, 1));
+        assertEquals(List.of(), itemSearchIndex.searchIds("аккум", 0, 10));
+    }
+
+    @Test
+    void shouldIndexItemsWithIdsBeyondIntRange() {
+        long id = Integer.MAX_VALUE + 10L;
+        itemSearchIndex.index(item(id, "Дрель ударная", "Сетевая дрель", true));
+        assertEquals(List.of(1L, 4L, id), itemSearchIndex.searchIds("дрел", 0, 10));
+        itemSearchIndex.remove(List.of(id));
+        assertEquals(List.of(1L, 4L), itemSearchIndex.searchIds("дрел", 0, 10));
+    }
+
+    @Test
+    void shouldDropPostingsOfRemovedItems() {
+        int grams = itemSearchIndex.gramCount();
+        itemSearchIndex.index(item(5L, "Рубанок", "Электрорубанок", true));
+        assertTrue(itemSearchIndex.gramCount() > grams);
+        itemSearchIndex.remove(List.of(5L));
+        assertEquals(grams, itemSearchIndex.gramCount());
+        itemSearchIndex.index(item(6L, "Стамеска", "Плоская стамеска", true));
+        assertEquals(List.of(6L), itemSearchIndex.searchIds("стамес", 0, 10));
+        assertEquals(List.of(), itemSearchIndex.searchIds("рубан", 0, 10));
+    }
+
+    private Item item(Long id, String name, String description, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
@@ -13,6 +18,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.exceptions.BadRequestException;
 import ru.practicum.shareit.exceptions.NotFoundException;
@@ -28,27 +34,40 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static ru.practicum.shareit.booking.mapper.BookingMapper.*;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
 class ItemServiceImplTest {
 
     private final ItemServiceImpl itemService;
+    private final ObjectMapper objectMapper;
     private final UserServiceImpl userService;
     private final BookingServiceImpl bookingService;
     private final ItemRequestService itemRequestService;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
     private final UserDto ownerDto = new UserDto(1L, "username", "user@mail.ru");
     private UserDto createdOwnerDto;
     private final UserDto bookerDto = new UserDto(2L, "username2", "user2@mail.ru");
@@ -65,8 +84,8 @@ class ItemServiceImplTest {
             .build();
     private ItemDto createdItem;
     private final BookingInputDto nextBooking = BookingInputDto.builder()
-            .start(LocalDateTime.now().plusDays(3))
-            .end(LocalDateTime.now().plusDays(4))
+            .start(LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.MICROS))
+            .end(LocalDateTime.now().plusDays(4).truncatedTo(ChronoUnit.MICROS))
             .build();
     private BookingDto createdNextBooking;
     private final CommentDto commentDto = CommentDto.builder()
@@ -98,6 +117,67 @@ class ItemServiceImplTest {
         assertEquals(createdItem2.getAvailable(), item2.getAvailable());
     }
 
+    @Test
+    @SneakyThrows
+    void shouldImportItemsWithResultPerLine() {
+        String body = "{\"name\": \"item2\", \"description\": \"description\", \"available\": true}\n" +
+                "{\"name\": \n" +
+                "\n" +
+                "{\"name\": \"\", \"description\": \"description\", \"available\": true}\n" +
+                "{\"name\": \"item3\", \"description\": \"description\", \"available\": true, \"requestId\": 99}\n" +
+                "{\"name\": \"item4\", \"description\": \"description\", \"available\": false, \"requestId\": " +
+                createdItemRequestDto.getId() + "}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ItemImporter(itemService, userService, objectMapper, 2).importItems(createdOwnerDto.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        assertEquals(List.of(
+                "{\"line\":1,\"id\":2}",
+                "{\"line\":2,\"error\":\"Некорректный JSON\"}",
+                "{\"line\":4,\"error\":\"Имя не может быть пустым\"}",
+                "{\"line\":5,\"error\":\"Не существует запроса с указанным id\"}",
+                "{\"line\":6,\"id\":3}"), output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList()));
+        assertEquals(createdItemRequestDto.getId(), itemService.getById(3L, createdOwnerDto.getId()).getRequestId());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFlushMalformedLinesInBatches() {
+        String body = "{\n{\n{\n{\n{\n";
+        List<Integer> flushedLines = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedLines.add((int) toString(StandardCharsets.UTF_8).lines().count());
+            }
+        };
+        new ItemImporter(itemService, userService, objectMapper, 2).importItems(createdOwnerDto.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        assertEquals(List.of(2, 4, 5), flushedLines);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldRejectLinesThatAreNotJsonObjects() {
+        String body = "null\n[]\n\"item\"\n42\n" +
+                "{\"name\": \"item2\", \"description\": \"description\", \"available\": true}\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new ItemImporter(itemService, userService, objectMapper, 2).importItems(createdOwnerDto.getId(),
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        assertEquals(List.of(
+                "{\"line\":1,\"error\":\"Некорректный JSON\"}",
+                "{\"line\":2,\"error\":\"Некорректный JSON\"}",
+                "{\"line\":3,\"error\":\"Некорректный JSON\"}",
+                "{\"line\":4,\"error\":\"Некорректный JSON\"}",
+                "{\"line\":5,\"id\":2}"), output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldNotImportItemsWithUncorrectedOwnerId() {
+        assertThatThrownBy(() -> new ItemImporter(itemService, userService, objectMapper, 2).importItems(3L,
+                new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void shouldNotCreateWithEmptyName() {
         inputItemDto.setName(null);
@@ -169,6 +249,56 @@ class ItemServiceImplTest {
         assertNull(findingItem.getNextBooking());
     }
 
+    @Test
+    void shouldGetItemEtagDependingOnCaller() {
+        String ownerEtag = itemService.getItemEtag(inputItemDto.getId(), createdOwnerDto.getId());
+        String bookerEtag = itemService.getItemEtag(inputItemDto.getId(), createdBookerDto.getId());
+        assertNotEquals(ownerEtag, bookerEtag);
+        createdNextBooking = bookingService.create(createdBookerDto.getId(), nextBooking);
+        bookingService.approve(createdOwnerDto.getId(), createdNextBooking.getId(), true);
+        assertTrue(itemService.getItemEtag(inputItemDto.getId(), createdOwnerDto.getId())
+                .endsWith("-null-" + createdNextBooking.getId() + "\""));
+        assertEquals(bookerEtag, itemService.getItemEtag(inputItemDto.getId(), createdBookerDto.getId()));
+    }
+
+    @Test
+    void shouldNotGetItemEtagByUncorrectedItemId() {
+        assertThatThrownBy(() -> itemService.getItemEtag(2L, createdOwnerDto.getId()))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void shouldGetAvailabilityWithoutActiveBookings() {
+        createdNextBooking = bookingService.create(createdBookerDto.getId(), nextBooking);
+        LocalDateTime from = nextBooking.getStart().minusDays(1);
+        LocalDateTime to = nextBooking.getEnd().plusDays(1);
+        List<AvailabilitySlotDto> slots = itemService.getAvailability(createdItem.getId(), createdBookerDto.getId(),
+                from, to);
+        assertEquals(List.of(new AvailabilitySlotDto(from, nextBooking.getStart()),
+                new AvailabilitySlotDto(nextBooking.getEnd(), to)), slots);
+        bookingService.approve(createdOwnerDto.getId(), createdNextBooking.getId(), false);
+        assertEquals(List.of(new AvailabilitySlotDto(from, to)),
+                itemService.getAvailability(createdItem.getId(), createdBookerDto.getId(), from, to));
+    }
+
+    @Test
+    void shouldNotGetAvailabilityForIncorrectPeriod() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThatThrownBy(() -> itemService.getAvailability(createdItem.getId(), createdOwnerDto.getId(), now, now))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> itemService.getAvailability(2L, createdOwnerDto.getId(), null, null))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotServeCachedItemOfDeletedOwner() {
+        itemService.getById(createdItem.getId(), createdBookerDto.getId());
+        userService.delete(createdOwnerDto.getId());
+        assertThrows(NotFoundException.class, () -> itemService.getById(createdItem.getId(),
+                createdBookerDto.getId()));
+    }
+
     @Test
     void shouldNotGetByUncorrectedUserId() {
         assertThatThrownBy(() -> itemService.getById(createdItem.getId(), 3L)).isInstanceOf(NotFoundException.class);
@@ -203,6 +333,54 @@ class ItemServiceImplTest {
         assertNull(items.get(0).getNextBooking());
     }
 
+    @Test
+    void shouldGetItemsByOwnerWithFixedNumberOfStatements() {
+        User owner = userRepository.findById(createdOwnerDto.getId()).orElseThrow();
+        User booker = userRepository.findById(createdBookerDto.getId()).orElseThrow();
+        for (long i = 2; i <= 3; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("itemname" + i)
+                    .description("description" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(LocalDateTime.now().minusDays(2))
+                    .end(LocalDateTime.now().minusDays(1))
+                    .status(Status.APPROVED)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .status(Status.APPROVED)
+                    .build());
+        }
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemDto> firstPage = (List<ItemDto>) itemService.getItemsByOwner(createdOwnerDto.getId(), 0, 1);
+        long firstPageStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        List<ItemDto> items = (List<ItemDto>) itemService.getItemsByOwner(createdOwnerDto.getId(), 0, 3);
+        long fullPageStatements = statistics.getPrepareStatementCount();
+        assertEquals(firstPage.size(), 1);
+        assertEquals(items.size(), 3);
+        assertEquals(firstPageStatements, fullPageStatements);
+        assertNull(items.get(0).getLastBooking());
+        assertNull(items.get(0).getNextBooking());
+        for (ItemDto item : items.subList(1, 3)) {
+            assertNotNull(item.getLastBooking());
+            assertNotNull(item.getNextBooking());
+            assertEquals(item.getLastBooking().getItemId(), item.getId());
+            assertEquals(item.getNextBooking().getItemId(), item.getId());
+            assertTrue(item.getLastBooking().getStart().isBefore(item.getNextBooking().getStart()));
+        }
+    }
+
     @Test
     void shouldNotGetItemsByUncorrectedOwner() {
         assertThatThrownBy(() -> itemService.getItemsByOwner(3L, 0, 1)).isInstanceOf(NotFoundException.class);
@@ -257,6 +435,31 @@ class ItemServiceImplTest {
         assertEquals(resultComment.getAuthorName(), savedBooker.getName());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldServeRenamedCommentAuthor() {
+        postPastBookingComment(createdBookerDto.getId());
+        String etag = itemService.getItemEtag(createdItem.getId(), createdBookerDto.getId());
+        assertEquals("username2", itemService.getById(createdItem.getId(), createdBookerDto.getId())
+                .getComments().get(0).getAuthorName());
+        userService.update(createdBookerDto.getId(), new UserDto(null, "renamed", null));
+        assertNotEquals(etag, itemService.getItemEtag(createdItem.getId(), createdBookerDto.getId()));
+        assertEquals("renamed", itemService.getById(createdItem.getId(), createdBookerDto.getId())
+                .getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldNotServeCommentsOfDeletedAuthor() {
+        UserDto author = userService.create(new UserDto(null, "author", "author@mail.ru"));
+        postPastBookingComment(author.getId());
+        String etag = itemService.getItemEtag(createdItem.getId(), createdBookerDto.getId());
+        assertEquals(1, itemService.getById(createdItem.getId(), createdBookerDto.getId()).getComments().size());
+        userService.delete(author.getId());
+        assertNotEquals(etag, itemService.getItemEtag(createdItem.getId(), createdBookerDto.getId()));
+        assertTrue(itemService.getById(createdItem.getId(), createdBookerDto.getId()).getComments().isEmpty());
+    }
+
     @Test
     void shouldNotPostCommentWithEmptyText() {
         CommentDto wrongComment = CommentDto.builder()
@@ -280,4 +483,14 @@ class ItemServiceImplTest {
         assertThatThrownBy(() -> itemService.postComment(createdBookerDto.getId(), createdItem.getId(), commentDto)).isInstanceOf(BadRequestException.class);
     }
 
+    private void postPastBookingComment(Long authorId) {
+        Booking pastBooking = bookingRepository.findById(bookingService.create(authorId, nextBooking).getId())
+                .orElseThrow();
+        pastBooking.setStart(LocalDateTime.now().minusDays(2));
+        pastBooking.setEnd(LocalDateTime.now().minusDays(1));
+        pastBooking.setStatus(Status.APPROVED);
+        bookingRepository.save(pastBooking);
+        itemService.postComment(authorId, createdItem.getId(), commentDto);
+    }
+
 }
\ No newline at end of file
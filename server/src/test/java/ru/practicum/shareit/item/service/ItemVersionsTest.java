@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemVersionsTest {
+
+    private ItemVersions itemVersions;
+
+    @BeforeEach
+    void setUp() {
+        itemVersions = new ItemVersions(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldChangeItemVersionOnlyForTouchedItem() {
+        long first = itemVersions.item(1L);
+        long second = itemVersions.item(2L);
+        itemVersions.touchItem(1L);
+        assertNotEquals(first, itemVersions.item(1L));
+        assertEquals(second, itemVersions.item(2L));
+        assertEquals(0, itemVersions.catalog());
+    }
+
+    @Test
+    void shouldNeverRepeatVersionAfterChange() {
+        itemVersions.touchItem(1L);
+        long touched = itemVersions.item(1L);
+        itemVersions.touchCatalog();
+        itemVersions.touchItem(1L);
+        assertTrue(itemVersions.item(1L) > touched);
+        assertTrue(itemVersions.item(1L) > itemVersions.catalog());
+    }
+
+    @Test
+    void shouldChangeCatalogVersionOnTouch() {
+        long first = itemVersions.catalog();
+        itemVersions.touchCatalog();
+        long second = itemVersions.catalog();
+        itemVersions.touchCatalog();
+        assertTrue(second > first);
+        assertTrue(itemVersions.catalog() > second);
+    }
+
+    @Test
+    void shouldChangeVersionsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        itemVersions.touchItem(1L);
+        itemVersions.touchCatalog();
+        assertEquals(0, itemVersions.item(1L));
+        assertEquals(0, itemVersions.catalog());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(0, itemVersions.item(1L));
+        assertNotEquals(0, itemVersions.catalog());
+    }
+
+    @Test
+    void shouldShareVersionWithinStripe() {
+        ItemVersions single = new ItemVersions(1);
+        single.touchItem(1L);
+        assertEquals(single.item(1L), single.item(2L));
+    }
+
+    @Test
+    void shouldBuildQuotedEtag() {
+        String etag = itemVersions.etag("item", 1L, 0L, "owner", null, 5L);
+        assertTrue(etag.startsWith("\""));
+        assertTrue(etag.endsWith("-item-1-0-owner-null-5\""));
+    }
+}
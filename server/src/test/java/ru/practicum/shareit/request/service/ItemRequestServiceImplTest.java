@@ -25,7 +25,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
 class ItemRequestServiceImplTest {
 
     private final ItemRequestServiceImpl itemRequestService;
@@ -104,6 +104,41 @@ class ItemRequestServiceImplTest {
         assertEquals(requests.size(), 1);
     }
 
+    @Test
+    void shouldGetAllRequestsWithGroupedItems() {
+        UserDto createdUser2 = userService.create(UserDto.builder()
+                .name("username2")
+                .email("user2@mail.ru")
+                .build());
+        ItemRequestDto secondRequest = itemRequestService.createRequest(InputItemRequestDto.builder()
+                .description("second request")
+                .build(), createdUser.getId());
+        ItemDto secondItem = itemService.create(InputItemDto.builder()
+                .name("itemname2")
+                .description("item description2")
+                .available(true)
+                .requestId(secondRequest.getId())
+                .build(), createdUser2.getId());
+        ItemDto thirdItem = itemService.create(InputItemDto.builder()
+                .name("itemname3")
+                .description("item description3")
+                .available(true)
+                .requestId(secondRequest.getId())
+                .build(), createdUser2.getId());
+        List<ItemRequestDto> requests = itemRequestService.getAllRequests(createdUser2.getId(), 0, 10);
+        assertEquals(requests.size(), 2);
+        ItemRequestDto first = requests.stream()
+                .filter(request -> request.getId().equals(itemRequestDto.getId()))
+                .findFirst()
+                .orElseThrow();
+        ItemRequestDto second = requests.stream()
+                .filter(request -> request.getId().equals(secondRequest.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(first.getItems(), List.of(createdItem));
+        assertEquals(second.getItems(), List.of(secondItem, thirdItem));
+    }
+
     @Test
     void shouldGetAllRequests() {
         List<ItemRequestDto> requests = itemRequestService.getAllRequests(createdUser.getId(), 0, 1);
@@ -19,7 +19,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @Transactional
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
-@Sql(scripts = {"file:src/main/resources/schema.sql"})
+@Sql(scripts = {"file:src/main/resources/schema.sql", "file:src/test/resources/schema-h2.sql"})
 class UserServiceImplTest {
 
     private final UserServiceImpl userService;
@@ -69,6 +69,12 @@ class UserServiceImplTest {
         assertThatThrownBy(() -> userService.getUserById(2L)).isInstanceOf(NotFoundException.class);
     }
 
+    @Test
+    void shouldCheckUserExists() {
+        userService.checkUserExists(createdUser.getId());
+        assertThatThrownBy(() -> userService.checkUserExists(2L)).isInstanceOf(NotFoundException.class);
+    }
+
     @Test
     void shouldGetAll() {
         assertEquals(userService.getAll(), List.of(createdUser));
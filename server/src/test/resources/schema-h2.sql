@@ -0,0 +1,8 @@
+CREATE TRIGGER IF NOT EXISTS ex_bookings_item_approved_overlap BEFORE INSERT, UPDATE ON bookings
+  FOR EACH ROW CALL 'ru.practicum.shareit.booking.repository.ApprovedBookingOverlapTrigger';
+
+ALTER SEQUENCE users_seq RESTART WITH 1;
+ALTER SEQUENCE requests_seq RESTART WITH 1;
+ALTER SEQUENCE items_seq RESTART WITH 1;
+ALTER SEQUENCE bookings_seq RESTART WITH 1;
+ALTER SEQUENCE comments_seq RESTART WITH 1;